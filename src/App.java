@@ -7,19 +7,48 @@
  * with this source code in the file LICENSE.
  */
 
+import io.CorpusReader;
 import io.GridReader;
 import io.GridWriter;
+import io.InvalidInputException;
+import problem.Archipelago;
 import problem.Problem;
+import problem.SolverContext;
 import problem.World;
+import problem.crossover.BlockCrossover;
+import problem.crossover.Crossover;
+import problem.crossover.RowCrossover;
 import problem.crossover.UniformCrossover;
-import problem.habitat.Individual;
+import problem.fitness.FitnessFunction;
+import problem.fitness.LinearFitness;
+import problem.fitness.PowerFitness;
+import problem.habitat.Encoding;
+import problem.metrics.MetricsWriter;
+import problem.dlx.DancingLinks;
+import problem.mutation.ConflictMutation;
+import problem.mutation.Mutation;
+import problem.mutation.SwapPolicy;
 import problem.mutation.SwapRowMutation;
-import problem.registry.Registry;
+import problem.selection.LinearRankSelection;
 import problem.selection.RouletteWheelSelection;
+import problem.selection.Selection;
+import problem.selection.StochasticUniversalSampling;
+import problem.selection.TournamentSelection;
 import sudoku.*;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Class parses the input parameters and starts the algorithm
@@ -33,14 +62,73 @@ public final class App {
     private static int populationsBeforeRestart = 20;
     private static int numberParents = 2;
     private static int numberLeftEmptyFields = 0;
+    private static boolean presolverTechniques = false;
+    private static int threads = 1;
+    private static int numberIslands = 1;
+    private static int migrationInterval = 10;
+    private static String migrationTopology = "ring";
+    private static String selection = "roulette";
+    private static int tournamentSize = 3;
+    private static String swapPolicy = "always";
+    private static String mutation = "random";
+    private static String fitnessFunction = "cubic";
+    private static Encoding encoding = Encoding.CELLS;
+    private static String crossover = null;
+    private static String engine = "ga";
+    private static int endgameThreshold = 0;
+    private static int generationLimit = 0;
+    private static String metricsFile = null;
+    private static MetricsWriter metricsWriter = null;
+    private static String batchFile = null;
+    private static int batchWorkers = Runtime.getRuntime().availableProcessors();
+    private static String batchOrder = "input";
 
     /**
      * Main entry point
      * @param args array of the program's arguments (for details see README.md)
      */
     public static void main(String[] args) {
-        GridWriter.printTitle();
-        App.parseArguments(new ArrayList<>(Arrays.asList(args)));
+        ArrayList<String> arguments = new ArrayList<>(Arrays.asList(args));
+        boolean batch = arguments.indexOf("-f") > -1;
+        if (batch) {
+            GridWriter.setSilent(true);
+        } else {
+            GridWriter.printTitle();
+        }
+        App.parseArguments(arguments);
+        try {
+            if (App.metricsFile != null) {
+                App.metricsWriter = new MetricsWriter(Paths.get(App.metricsFile));
+            }
+            if (batch) {
+                App.solveBatch();
+            } else {
+                App.solveSingle();
+            }
+        } catch (IOException exception) {
+            GridWriter.printError("Could not write \"" + App.metricsFile + "\" (" + exception.getMessage() + ")");
+        } finally {
+            App.closeMetrics();
+        }
+    }
+
+    /**
+     * Closes the metrics-file (if any)
+     */
+    private static void closeMetrics() {
+        if (App.metricsWriter != null) {
+            try {
+                App.metricsWriter.close();
+            } catch (IOException exception) {
+                GridWriter.printError("Could not write \"" + App.metricsFile + "\" (" + exception.getMessage() + ")");
+            }
+        }
+    }
+
+    /**
+     * Reads a single sudoku-grid from the standard-input and solves it
+     */
+    private static void solveSingle() {
         GridWriter.printSpace();
         SudokuGrid grid = GridReader.read();
         GridWriter.printSpace();
@@ -48,23 +136,272 @@ public final class App {
         if (grid != null) {
             GridWriter.printIntput(grid);
 
-            Registry.getInstance().set("elitism-rate", App.elitismRate);
-            Registry.getInstance().set("mutation-rate", App.mutationRate);
-            Registry.getInstance().set("population-size", App.populationSize);
-            Registry.getInstance().set("presolver-leave-empty", App.numberLeftEmptyFields);
-            Registry.getInstance().set("populations-before-restart", App.populationsBeforeRestart);
-            Registry.getInstance().set("grid", grid);
-            Registry.getInstance().set("problem", new Problem(grid));
-            Registry.getInstance().set("crossover", new UniformCrossover(App.numberParents));
-            Registry.getInstance().set("selection", new RouletteWheelSelection());
-            Registry.getInstance().set("mutation", new SwapRowMutation());
+            SolverContext context = App.createContext(grid, 1);
+            Problem problem = context.getProblem();
+            GridWriter.printPresolve(grid, problem.getVariableFields().length);
+            if (App.presolverTechniques) {
+                GridWriter.printTechniques(problem.getTechniqueEliminations());
+            }
+
+            SudokuGrid solution;
+            if (problem.isContradictory()) {
+                solution = null;
+            } else if (App.useExactEngine(grid, problem)) {
+                solution = new DancingLinks(grid).solve();
+            } else if (App.numberIslands > 1) {
+                solution = new Archipelago(context, App.numberIslands).findSolution();
+            } else {
+                try (World world = new World(context)) {
+                    solution = world.findSolution();
+                }
+            }
+
+            if (solution == null) {
+                GridWriter.printNoSolution();
+            } else if (solution.getConflicts() > 0) {
+                GridWriter.printGenerationLimit(solution);
+            } else {
+                GridWriter.printSolution(solution);
+            }
+        }
+    }
+
+    /**
+     * Presolves a grid and creates the context to solve it with the configured parameters
+     * @param grid the grid to solve
+     * @param puzzle the puzzle the measurements get written for (its line number in a batch-file)
+     * @return a new context, not shared with any other solve
+     */
+    private static SolverContext createContext(SudokuGrid grid, int puzzle) {
+        SolverContext context = new SolverContext(grid, new Problem(grid, App.numberLeftEmptyFields, App.presolverTechniques));
+        context.setElitismRate(App.elitismRate);
+        context.setMutationRate(App.mutationRate);
+        context.setPopulationSize(App.populationSize);
+        context.setPopulationsBeforeRestart(App.populationsBeforeRestart);
+        context.setThreads(App.threads);
+        context.setMigrationInterval(App.migrationInterval);
+        context.setMigrationTopology(App.migrationTopology);
+        context.setEndgameThreshold(App.endgameThreshold);
+        context.setGenerationLimit(App.generationLimit);
+        context.setMetricsListener((App.metricsWriter != null) ? App.metricsWriter.forPuzzle(puzzle) : null);
+        context.setFitnessFunction(App.createFitnessFunction());
+        context.setEncoding(App.encoding);
+        context.setCrossover(App.createCrossover());
+        context.setSelection(App.createSelection());
+        context.setMutation(App.createMutation(context));
+        return context;
+    }
+
+    /**
+     * Solves every puzzle of the batch-file ('-f') on a pool of workers ('-w') and prints one line
+     * per puzzle in the order of the file or in the order the puzzles get solved ('-r').
+     */
+    private static void solveBatch() {
+        ExecutorService executor = Executors.newFixedThreadPool(App.batchWorkers);
+        CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+        Queue<Future<String>> pending = new ArrayDeque<>();
+        try (CorpusReader reader = new CorpusReader(Paths.get(App.batchFile))) {
+            while (true) {
+                Callable<String> task;
+                try {
+                    SudokuGrid grid = reader.next();
+                    if (grid == null) break;
+                    int puzzle = reader.getLineNumber();
+                    task = () -> App.solvePuzzle(puzzle, grid);
+                } catch (InvalidInputException exception) {
+                    String error = GridWriter.formatBatchError(reader.getLineNumber(), exception.getMessage());
+                    task = () -> error;
+                }
+                // only the completion-service queues finished puzzles, which is not drained in input order
+                pending.add(App.batchOrder.equals("input") ? executor.submit(task) : completion.submit(task));
+                if (pending.size() >= 16 * App.batchWorkers) {
+                    App.printNextResult(completion, pending);
+                }
+            }
+            while (!pending.isEmpty()) {
+                App.printNextResult(completion, pending);
+            }
+        } catch (IOException exception) {
+            GridWriter.printError("Could not read \"" + App.batchFile + "\" (" + exception.getMessage() + ")");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exception) {
+            throw new RuntimeException("Solving a puzzle failed", exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the next result of a batch and prints it
+     * @param completion the completion-service the puzzles got submitted to in completion order
+     * @param pending the submitted puzzles in the order of the batch-file
+     */
+    private static void printNextResult(CompletionService<String> completion, Queue<Future<String>> pending)
+            throws InterruptedException, ExecutionException {
+        Future<String> result;
+        if (App.batchOrder.equals("input")) {
+            result = pending.poll();
+        } else {
+            result = completion.take();
+            pending.remove(result);
+        }
+        GridWriter.printBatchLine(result.get());
+    }
+
+    /**
+     * Solves a single puzzle of a batch with its own context. A puzzle which fails while being presolved
+     * or solved results in an error line, so the other puzzles of the batch still get solved.
+     * The parameters have already been checked while parsing the arguments
+     * @param puzzle the line number of the puzzle
+     * @param grid the puzzle
+     * @return the line to print for the puzzle
+     */
+    private static String solvePuzzle(int puzzle, SudokuGrid grid) {
+        long start = System.nanoTime();
+        SudokuGrid solution;
+        int generations = 0;
+        try {
+            SolverContext context = App.createContext(grid, puzzle);
+            if (context.getProblem().isContradictory()) {
+                solution = null;
+            } else if (App.useExactEngine(grid, context.getProblem())) {
+                solution = new DancingLinks(grid).solve();
+            } else if (App.numberIslands > 1) {
+                Archipelago archipelago = new Archipelago(context, App.numberIslands);
+                solution = archipelago.findSolution();
+                generations = archipelago.getGenerations();
+            } else {
+                try (World world = new World(context)) {
+                    solution = world.findSolution();
+                    generations = world.getGenerations();
+                }
+            }
+        } catch (RuntimeException exception) {
+            return GridWriter.formatBatchError(puzzle, String.valueOf(exception));
+        }
+        return GridWriter.formatBatchResult(puzzle, solution, generations, (System.nanoTime() - start) / 1000000);
+    }
+
+    /**
+     * Decides with the '-x' parameter whether the exact solver or the genetic algorithm gets used.
+     * In 'auto' mode the exact solver is used for grids up to 16x16 and for bigger grids
+     * of which at most half of the fields are still empty after presolving.
+     * @param grid the presolved grid
+     * @param problem the problem of the grid
+     * @return true iff the exact solver should be used
+     */
+    private static boolean useExactEngine(SudokuGrid grid, Problem problem) {
+        switch (App.engine) {
+            case "ga":
+                return false;
+            case "dlx":
+                return true;
+            case "auto":
+                return grid.getSideLength() <= 16 ||
+                        problem.getVariableFields().length <= grid.getSideLength() * grid.getSideLength() / 2;
+            default:
+                throw new IllegalArgumentException("Unknown engine \"" + App.engine + "\"");
+        }
+    }
+
+    /**
+     * @param encoding the value of the '-g' parameter
+     * @return the encoding with the given name
+     */
+    private static Encoding parseEncoding(String encoding) {
+        switch (encoding) {
+            case "cells":
+                return Encoding.CELLS;
+            case "rows":
+                return Encoding.ROWS;
+            default:
+                throw new IllegalArgumentException("Unknown encoding \"" + encoding + "\"");
+        }
+    }
+
+    /**
+     * @return the crossover chosen with the '-q' parameter, by default the one matching the encoding ('-g')
+     */
+    private static Crossover createCrossover() {
+        String crossover = App.crossover;
+        if (crossover == null) {
+            crossover = (App.encoding == Encoding.ROWS) ? "rows" : "uniform";
+        }
+        switch (crossover) {
+            case "uniform":
+                return new UniformCrossover(App.numberParents);
+            case "rows":
+                return new RowCrossover(App.numberParents);
+            case "blocks":
+                return new BlockCrossover(App.numberParents);
+            default:
+                throw new IllegalArgumentException("Unknown crossover \"" + crossover + "\"");
+        }
+    }
+
+    /**
+     * @return the selection chosen with the '-s' parameter
+     */
+    private static Selection createSelection() {
+        switch (App.selection) {
+            case "roulette":
+                return new RouletteWheelSelection();
+            case "sus":
+                return new StochasticUniversalSampling();
+            case "tournament":
+                return new TournamentSelection(App.tournamentSize);
+            case "rank":
+                return new LinearRankSelection();
+            default:
+                throw new IllegalArgumentException("Unknown selection \"" + App.selection + "\"");
+        }
+    }
 
-            GridWriter.printPresolve(grid, ((Problem) Registry.getInstance().get("problem")).getVariableFields().length);
+    /**
+     * @param context the context of the solve
+     * @return the mutation chosen with the '-z' parameter
+     */
+    private static Mutation createMutation(SolverContext context) {
+        switch (App.mutation) {
+            case "random":
+                return new SwapRowMutation(context, App.createSwapPolicy());
+            case "conflicts":
+                return new ConflictMutation(context, App.createSwapPolicy());
+            default:
+                throw new IllegalArgumentException("Unknown mutation \"" + App.mutation + "\"");
+        }
+    }
 
-            World world = new World();
-            Individual solution = world.findSolution();
+    /**
+     * @return the swap-policy chosen with the '-u' parameter
+     */
+    private static SwapPolicy createSwapPolicy() {
+        switch (App.swapPolicy) {
+            case "always":
+                return SwapPolicy.ALWAYS;
+            case "greedy":
+                return SwapPolicy.GREEDY;
+            case "probabilistic":
+                return SwapPolicy.PROBABILISTIC;
+            default:
+                throw new IllegalArgumentException("Unknown swap-policy \"" + App.swapPolicy + "\"");
+        }
+    }
 
-            GridWriter.printSolution(solution);
+    /**
+     * @return the fitness function chosen with the '-y' parameter
+     */
+    private static FitnessFunction createFitnessFunction() {
+        switch (App.fitnessFunction) {
+            case "cubic":
+                return new PowerFitness(3);
+            case "inverse":
+                return new PowerFitness(1);
+            case "linear":
+                return new LinearFitness();
+            default:
+                throw new IllegalArgumentException("Unknown fitness function \"" + App.fitnessFunction + "\"");
         }
     }
 
@@ -97,5 +434,115 @@ public final class App {
             App.numberLeftEmptyFields = Integer.parseInt(args.get(args.indexOf("-l") + 1));
             GridWriter.printParameterChange("Number of fields left empty by the presolver (-l)", App.numberLeftEmptyFields);
         }
+        if (args.indexOf("-a") > -1) {
+            App.presolverTechniques = true;
+            GridWriter.printParameterChange("Logical techniques of the presolver (-a)", App.presolverTechniques);
+        }
+        if (args.indexOf("-x") > -1) {
+            App.engine = args.get(args.indexOf("-x") + 1);
+            GridWriter.printParameterChange("Engine (-x)", App.engine);
+        }
+        if (args.indexOf("-c") > -1) {
+            App.endgameThreshold = Integer.parseInt(args.get(args.indexOf("-c") + 1));
+            GridWriter.printParameterChange("Conflicts for an endgame search (-c)", App.endgameThreshold);
+        }
+        if (args.indexOf("-j") > -1) {
+            App.generationLimit = Integer.parseInt(args.get(args.indexOf("-j") + 1));
+            GridWriter.printParameterChange("Generation-limit (-j)", App.generationLimit);
+        }
+        if (args.indexOf("-d") > -1) {
+            App.metricsFile = args.get(args.indexOf("-d") + 1);
+            GridWriter.printParameterChange("Metrics-file (-d)", App.metricsFile);
+        }
+        if (args.indexOf("-f") > -1) {
+            App.batchFile = args.get(args.indexOf("-f") + 1);
+            GridWriter.printParameterChange("Batch-file (-f)", App.batchFile);
+        }
+        if (args.indexOf("-w") > -1) {
+            App.batchWorkers = Integer.parseInt(args.get(args.indexOf("-w") + 1));
+            GridWriter.printParameterChange("Batch workers (-w)", App.batchWorkers);
+        }
+        if (args.indexOf("-r") > -1) {
+            App.batchOrder = args.get(args.indexOf("-r") + 1);
+            GridWriter.printParameterChange("Batch order (-r)", App.batchOrder);
+        }
+        if (args.indexOf("-t") > -1) {
+            App.threads = Integer.parseInt(args.get(args.indexOf("-t") + 1));
+            GridWriter.printParameterChange("Threads for breeding (-t)", App.threads);
+        }
+        if (args.indexOf("-i") > -1) {
+            App.numberIslands = Integer.parseInt(args.get(args.indexOf("-i") + 1));
+            if (App.numberIslands < 1) {
+                throw new IllegalArgumentException("The number of islands must be at least 1");
+            }
+            GridWriter.printParameterChange("Number of islands (-i)", App.numberIslands);
+        }
+        if (args.indexOf("-v") > -1) {
+            App.migrationInterval = Integer.parseInt(args.get(args.indexOf("-v") + 1));
+            if (App.migrationInterval < 1) {
+                throw new IllegalArgumentException("The generations between migrations must be at least 1");
+            }
+            GridWriter.printParameterChange("Generations between migrations (-v)", App.migrationInterval);
+        }
+        if (args.indexOf("-o") > -1) {
+            App.migrationTopology = args.get(args.indexOf("-o") + 1);
+            if (!App.migrationTopology.equals("ring") && !App.migrationTopology.equals("random")) {
+                throw new IllegalArgumentException("Unknown migration topology \"" + App.migrationTopology + "\"");
+            }
+            GridWriter.printParameterChange("Migration topology (-o)", App.migrationTopology);
+        }
+        if (args.indexOf("-s") > -1) {
+            App.selection = args.get(args.indexOf("-s") + 1);
+            GridWriter.printParameterChange("Selection (-s)", App.selection);
+        }
+        if (args.indexOf("-k") > -1) {
+            App.tournamentSize = Integer.parseInt(args.get(args.indexOf("-k") + 1));
+            GridWriter.printParameterChange("Tournament size (-k)", App.tournamentSize);
+        }
+        if (args.indexOf("-u") > -1) {
+            App.swapPolicy = args.get(args.indexOf("-u") + 1);
+            GridWriter.printParameterChange("Swap-policy of the mutation (-u)", App.swapPolicy);
+        }
+        if (args.indexOf("-z") > -1) {
+            App.mutation = args.get(args.indexOf("-z") + 1);
+            GridWriter.printParameterChange("Mutation (-z)", App.mutation);
+        }
+        if (args.indexOf("-y") > -1) {
+            App.fitnessFunction = args.get(args.indexOf("-y") + 1);
+            GridWriter.printParameterChange("Fitness function (-y)", App.fitnessFunction);
+        }
+        if (args.indexOf("-g") > -1) {
+            App.encoding = App.parseEncoding(args.get(args.indexOf("-g") + 1));
+            GridWriter.printParameterChange("Encoding (-g)", args.get(args.indexOf("-g") + 1));
+        }
+        if (args.indexOf("-q") > -1) {
+            App.crossover = args.get(args.indexOf("-q") + 1);
+            GridWriter.printParameterChange("Crossover (-q)", App.crossover);
+        }
+        App.validateArguments();
+    }
+
+    /**
+     * Checks the named parameters once by creating their operators, so an unknown value
+     * fails before anything gets solved instead of inside the first solve
+     */
+    private static void validateArguments() {
+        App.createFitnessFunction();
+        App.createCrossover();
+        App.createSelection();
+        App.createSwapPolicy();
+        if (App.encoding == Encoding.ROWS && App.crossover != null && !App.crossover.equals("rows")) {
+            // any other crossover mixes rows of several parents, so rows would no longer be permutations
+            throw new IllegalArgumentException("The encoding \"rows\" only works with the crossover \"rows\"");
+        }
+        if (!App.mutation.equals("random") && !App.mutation.equals("conflicts")) {
+            throw new IllegalArgumentException("Unknown mutation \"" + App.mutation + "\"");
+        }
+        if (!App.engine.equals("ga") && !App.engine.equals("dlx") && !App.engine.equals("auto")) {
+            throw new IllegalArgumentException("Unknown engine \"" + App.engine + "\"");
+        }
+        if (!App.batchOrder.equals("input") && !App.batchOrder.equals("completed")) {
+            throw new IllegalArgumentException("Unknown batch order \"" + App.batchOrder + "\"");
+        }
     }
 }
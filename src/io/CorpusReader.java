@@ -0,0 +1,131 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package io;
+
+import sudoku.SudokuGrid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the puzzles of a corpus-file, one puzzle per line in the compact style.
+ * The file is memory-mapped and the fields get decoded straight from the bytes
+ * into the grids. Empty lines and lines starting with '#' are skipped.
+ */
+public final class CorpusReader implements Closeable {
+
+    private static final long WINDOW = 1L << 28;
+
+    private FileChannel channel;
+    private long size;
+    private long offset;
+    private MappedByteBuffer buffer;
+    private int lineNumber;
+    private byte[] line = new byte[0];
+
+    /**
+     * Default constructor
+     * @param path the path of the corpus-file
+     * @throws IOException
+     */
+    public CorpusReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = this.channel.size();
+        this.map(0);
+    }
+
+    /**
+     * Maps the next window of the file
+     * @param offset the position in the file the window starts at
+     * @throws IOException
+     */
+    private void map(long offset) throws IOException {
+        this.offset = offset;
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(CorpusReader.WINDOW, this.size - offset));
+    }
+
+    /**
+     * Reads the next puzzle. If the puzzle is invalid the exception is thrown and
+     * the next call continues with the following line.
+     * @return the next puzzle or null if the end of the file has been reached
+     * @throws IOException
+     * @throws InvalidInputException
+     */
+    public SudokuGrid next() throws IOException, InvalidInputException {
+        while (true) {
+            int start = this.buffer.position();
+            int limit = this.buffer.limit();
+            if (this.offset + start >= this.size) {
+                return null;
+            }
+            int end = start;
+            while (end < limit && this.buffer.get(end) != '\n') end++;
+            if (end == limit && this.offset + limit < this.size) {
+                if (start > 0) {
+                    this.map(this.offset + start); // the line continues in the next window
+                    continue;
+                }
+                this.lineNumber += 1;
+                this.skipLine();
+                throw new InvalidInputException("A line longer than " + CorpusReader.WINDOW + " bytes is no sudoku-grid.");
+            }
+            this.buffer.position(end < limit ? end + 1 : end);
+            this.lineNumber += 1;
+            while (start < end && this.buffer.get(start) <= ' ') start++;
+            while (end > start && this.buffer.get(end - 1) <= ' ') end--;
+            if (start == end || this.buffer.get(start) == '#') continue;
+            int length = end - start;
+            if (this.line.length < length) {
+                this.line = new byte[length];
+            }
+            this.buffer.get(start, this.line, 0, length);
+            SudokuGrid grid = GridReader.createGrid(length);
+            for (int index = 0; index < length; index++) {
+                GridReader.writeField(grid, index, this.line[index]);
+            }
+            return grid;
+        }
+    }
+
+    /**
+     * Skips the rest of a line which does not fit into a window. Maps the following windows
+     * till the end of the line and positions the buffer behind it
+     * @throws IOException
+     */
+    private void skipLine() throws IOException {
+        while (this.offset + this.buffer.limit() < this.size) {
+            this.map(this.offset + this.buffer.limit());
+            int limit = this.buffer.limit();
+            for (int end = 0; end < limit; end++) {
+                if (this.buffer.get(end) == '\n') {
+                    this.buffer.position(end + 1);
+                    return;
+                }
+            }
+        }
+        this.buffer.position(this.buffer.limit());
+    }
+
+    /**
+     * @return the line number of the puzzle read last
+     */
+    public int getLineNumber() {
+        return this.lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
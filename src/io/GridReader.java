@@ -17,6 +17,11 @@ import java.util.Scanner;
  */
 public final class GridReader {
 
+    /**
+     * The biggest side length of a grid written on a single line, as its numbers are '1'-'9' and 'A'-'Z'
+     */
+    static final int MAX_SINGLE_LINE_SIDE = 35;
+
     /**
      * Reads and returns a sudoku-grid form the standard-input
      * @return a sudoku-grid
@@ -71,6 +76,61 @@ public final class GridReader {
         }
     }
 
+    /**
+     * @param fields the number of fields of a grid written on a single line
+     * @return an empty grid with the given number of fields
+     * @throws InvalidInputException
+     */
+    static SudokuGrid createGrid(int fields) throws InvalidInputException {
+        int blockSize = (int) Math.round(Math.sqrt(Math.sqrt(fields)));
+        if (blockSize < 1 || blockSize * blockSize * blockSize * blockSize != fields) {
+            throw new InvalidInputException("A line with " + fields + " fields is no sudoku-grid.");
+        }
+        if (blockSize * blockSize > GridReader.MAX_SINGLE_LINE_SIDE) {
+            throw new InvalidInputException("Grids bigger than " + GridReader.MAX_SINGLE_LINE_SIDE + "x"
+                    + GridReader.MAX_SINGLE_LINE_SIDE + " cannot be written on a single line.");
+        }
+        return new SudokuGrid(blockSize);
+    }
+
+    /**
+     * Writes the number of a symbol into an empty field of a grid. Empty fields are '0' or '.',
+     * numbers above 9 are written as letters ('A' for 10, 'B' for 11, ...)
+     * @param grid the grid to write into
+     * @param index the index of the field
+     * @param symbol the symbol of the field
+     * @throws InvalidInputException
+     */
+    static void writeField(SudokuGrid grid, int index, int symbol) throws InvalidInputException {
+        int number = GridReader.decode(symbol);
+        if (number < 0 || number > grid.getSideLength()) {
+            throw new InvalidInputException("Invalid field '" + (char) symbol + "' at position '" + index + "'.");
+        }
+        if (number > 0) {
+            grid.write(index, number);
+        }
+    }
+
+    /**
+     * @param symbol the symbol of a field
+     * @return the number of the symbol or -1 if the symbol is no number
+     */
+    private static int decode(int symbol) {
+        if (symbol == '.') {
+            return 0;
+        }
+        if (symbol >= '0' && symbol <= '9') {
+            return symbol - '0';
+        }
+        if (symbol >= 'A' && symbol <= 'Z') {
+            return symbol - 'A' + 10;
+        }
+        if (symbol >= 'a' && symbol <= 'z') {
+            return symbol - 'a' + 10;
+        }
+        return -1;
+    }
+
     /**
      * Fills a given row with a given index of a given grid with numbers
      * @param grid the grid to fill with numbers
@@ -79,20 +139,51 @@ public final class GridReader {
      * @throws InvalidInputException
      */
     public static void fillGridRow(SudokuGrid grid, int rowIndex, String row) throws InvalidInputException {
-        if (!row.contains(" ")) {
-            row = row.replaceAll(".(?!$)", "$0 ").trim(); //space after each character
-        }
-        Scanner scanner = new Scanner(row);
+        boolean separated = row.indexOf(' ') > -1; // without spaces every character is a number
         int numberIndex = 0;
-        while (scanner.hasNextInt()) {
+        int position = 0;
+        while (true) {
+            while (position < row.length() && Character.isWhitespace(row.charAt(position))) position++;
+            if (position == row.length()) break;
+            int end = position + 1;
+            if (separated) {
+                while (end < row.length() && !Character.isWhitespace(row.charAt(end))) end++;
+            }
+            int number = GridReader.parseNumber(row, position, end);
+            if (number < 0) break;
             if (numberIndex >= grid.getSideLength()) {
                 throw new InvalidInputException("Too many numbers passed in row '" + rowIndex + "'.");
             }
-            grid.write(numberIndex, rowIndex, scanner.nextInt());
+            if (number > grid.getSideLength()) {
+                throw new InvalidInputException("Invalid number '" + number + "' in row '" + rowIndex + "'.");
+            }
+            grid.write(numberIndex, rowIndex, number);
             numberIndex += 1;
+            position = end;
         }
         if (numberIndex < grid.getSideLength()) {
             throw new InvalidInputException("Too less numbers passed in row '" + rowIndex + "'.");
         }
     }
+
+    /**
+     * @param row the row containing the number
+     * @param from the index of the first digit (incl.)
+     * @param to the index after the last digit (excl.)
+     * @return the decimal number or -1 if the characters are no number
+     */
+    private static int parseNumber(String row, int from, int to) {
+        if (to - from > 9) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            char digit = row.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            number = number * 10 + (digit - '0');
+        }
+        return number;
+    }
 }
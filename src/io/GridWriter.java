@@ -12,11 +12,23 @@ package io;
 import problem.habitat.Individual;
 import sudoku.SudokuGrid;
 
+import java.util.Map;
+
 /**
  * Class writes to the standard-output
  */
 public final class GridWriter {
 
+    private static volatile boolean silent = false;
+
+    /**
+     * Silences the progress output (parameter changes and elites), e.g. when solving a batch
+     * @param silent true iff the progress output should be suppressed
+     */
+    public static void setSilent(boolean silent) {
+        GridWriter.silent = silent;
+    }
+
     public static void printTitle() {
         String title = "   _____                 _   _         _____           _       _          \n" +
                 "  / ____|               | | (_)       / ____|         | |     | |         \n" +
@@ -56,7 +68,16 @@ public final class GridWriter {
         GridWriter.printSpace();
     }
 
-    public static void printElite(Individual elite, int epoch, int generation, double avgFitness, double avgConflicts) {
+    public static void printTechniques(Map<String, Integer> eliminations) {
+        GridWriter.printHeadline("Candidates removed by logical techniques:");
+        for (Map.Entry<String, Integer> elimination : eliminations.entrySet()) {
+            System.out.println(elimination.getKey() + ": " + elimination.getValue());
+        }
+        GridWriter.printSpace();
+    }
+
+    public static synchronized void printElite(Individual elite, int epoch, int generation, double avgFitness, double avgConflicts) {
+        if (GridWriter.silent) return;
         GridWriter.printHeadline("Current best individual:");
         System.out.println(elite);
         System.out.println("Conflicts: " + elite.getConflicts());
@@ -75,10 +96,60 @@ public final class GridWriter {
         GridWriter.printSpace();
     }
 
+    public static void printGenerationLimit(SudokuGrid best) {
+        GridWriter.printHeadline("Generation-limit reached, best individual:");
+        System.out.println(best);
+        System.out.println("Conflicts: " + best.getConflicts());
+        GridWriter.printSpace();
+    }
+
+    public static void printNoSolution() {
+        GridWriter.printHeadline("The problem has no solution.");
+        GridWriter.printSpace();
+    }
+
     public static void printParameterChange(String parameter, Object newValue) {
+        if (GridWriter.silent) return;
         System.out.println(parameter + " set to: " + newValue.toString());
     }
 
+    public static void printError(String message) {
+        System.out.println("Error: " + message);
+    }
+
+    public static void printBatchLine(String line) {
+        System.out.println(line);
+    }
+
+    /**
+     * Formats the result of a puzzle of a batch as a tab-separated line
+     * @param puzzle the line number of the puzzle in the batch-file
+     * @param solution the solution or the best individual found (null if the puzzle has no solution)
+     * @param generations the number of generations the genetic algorithm needed
+     * @param millis the wall time in milliseconds
+     * @return the line with the puzzle, solution, conflicts, generations and wall time
+     */
+    public static String formatBatchResult(int puzzle, SudokuGrid solution, int generations, long millis) {
+        if (solution == null) {
+            return puzzle + "\t-\t-\t" + generations + "\t" + millis;
+        }
+        StringBuilder fields = new StringBuilder(solution.getSideLength() * solution.getSideLength());
+        for (int index = 0; index < solution.getSideLength() * solution.getSideLength(); index++) {
+            int number = solution.read(index);
+            fields.append((char) (number < 10 ? '0' + number : 'A' + number - 10));
+        }
+        return puzzle + "\t" + fields + "\t" + solution.getConflicts() + "\t" + generations + "\t" + millis;
+    }
+
+    /**
+     * @param puzzle the line number of the puzzle in the batch-file
+     * @param message the reason why the puzzle could not be read
+     * @return the line with the puzzle and the error
+     */
+    public static String formatBatchError(int puzzle, String message) {
+        return puzzle + "\tError: " + message;
+    }
+
     private static void printHeadline(String headline) {
         System.out.println(headline);
         System.out.println(new String(new char[headline.length()]).replace("\0", "-"));
@@ -0,0 +1,162 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem;
+
+import problem.habitat.Individual;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents an archipelago of worlds (islands). Every island evolves its own population
+ * on its own thread. Periodically the islands send their best individuals to a neighbour.
+ * As soon as one island finds a solution all islands stop.
+ */
+public final class Archipelago {
+
+    private World[] islands;
+    private List<Queue<Individual[]>> inboxes;
+    private AtomicReference<Individual> solution;
+    private volatile boolean stopped;
+    private final int migrationInterval;
+    private final String topology;
+
+    /**
+     * Default constructor
+     * @param context the context of the solve
+     * @param numberIslands the number of islands to evolve
+     */
+    public Archipelago(SolverContext context, int numberIslands) {
+        if (numberIslands < 2) {
+            throw new IllegalArgumentException("An archipelago needs at least two islands");
+        }
+        this.migrationInterval = context.getMigrationInterval();
+        if (this.migrationInterval < 1) {
+            throw new IllegalArgumentException("The generations between migrations must be at least 1");
+        }
+        this.topology = context.getMigrationTopology();
+        if (!this.topology.equals("ring") && !this.topology.equals("random")) {
+            throw new IllegalArgumentException("Unknown migration topology \"" + this.topology + "\"");
+        }
+        this.islands = new World[numberIslands];
+        this.inboxes = new ArrayList<>();
+        for (int i = 0; i < numberIslands; i++) {
+            this.islands[i] = new World(context);
+            this.inboxes.add(new ConcurrentLinkedQueue<>());
+        }
+        this.solution = new AtomicReference<>();
+    }
+
+    /**
+     * Finds a solution. Evolves all islands concurrently till one of them has found a solution
+     * or each of them has reached the generation-limit
+     * @return a valid solution to the problem or the best individual of all islands
+     */
+    public Individual findSolution() {
+        ExecutorService executor = Executors.newFixedThreadPool(this.islands.length);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < this.islands.length; i++) {
+                int island = i;
+                futures.add(executor.submit(() -> this.evolveIsland(island)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while evolving the islands", exception);
+        } catch (ExecutionException exception) {
+            throw new RuntimeException("Evolving an island failed", exception.getCause());
+        } finally {
+            executor.shutdownNow();
+            for (World island : this.islands) {
+                island.close();
+            }
+        }
+        if (this.solution.get() == null) {
+            Individual best = this.islands[0].getBest();
+            for (World island : this.islands) {
+                if (island.getBest().getConflicts() < best.getConflicts()) {
+                    best = island.getBest();
+                }
+            }
+            return best;
+        }
+        return this.solution.get();
+    }
+
+    /**
+     * @return the number of generations evolved by all islands together
+     */
+    public int getGenerations() {
+        int generations = 0;
+        for (World island : this.islands) {
+            generations += island.getGenerations();
+        }
+        return generations;
+    }
+
+    /**
+     * Evolves a single island till any island has found a solution or till the island
+     * has reached its own generation-limit. An island which fails stops all islands
+     * @param island the index of the island to evolve
+     */
+    private void evolveIsland(int island) {
+        World world = this.islands[island];
+        int generation = 0;
+        try {
+            while (!this.stopped) {
+                if (world.getBest().getConflicts() == 0) {
+                    this.solution.compareAndSet(null, world.getBest());
+                    this.stopped = true;
+                    return;
+                }
+                if (world.isExhausted()) {
+                    return;
+                }
+                world.step();
+                generation += 1;
+                if (generation % this.migrationInterval == 0) {
+                    this.inboxes.get(this.getNeighbour(island)).add(world.getEmigrants());
+                }
+                Individual[] immigrants;
+                while ((immigrants = this.inboxes.get(island).poll()) != null) {
+                    world.immigrate(immigrants);
+                }
+            }
+        } catch (RuntimeException | Error exception) {
+            this.stopped = true;
+            throw exception;
+        } finally {
+            world.endEpoch(false);
+        }
+    }
+
+    /**
+     * @param island the index of the island which sends emigrants
+     * @return the index of the island which receives the emigrants
+     */
+    private int getNeighbour(int island) {
+        if (this.topology.equals("ring")) {
+            return (island + 1) % this.islands.length;
+        }
+        int neighbour = ThreadLocalRandom.current().nextInt(this.islands.length - 1);
+        return (neighbour >= island) ? neighbour + 1 : neighbour;
+    }
+}
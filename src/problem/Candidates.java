@@ -0,0 +1,149 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem;
+
+/**
+ * Stores for each field of a grid the set of candidate numbers as a bitmask.
+ * Number n is stored in bit (n - 1). Grids with a side length above 64 use
+ * more than one long per field.
+ */
+public final class Candidates {
+
+    private final int sideLength;
+    private final int words;
+    private final long[] masks;
+
+    /**
+     * Default constructor. Creates empty candidate sets for all fields
+     * @param sideLength the side length of the grid
+     */
+    public Candidates(int sideLength) {
+        this.sideLength = sideLength;
+        this.words = (sideLength + 63) / 64;
+        this.masks = new long[sideLength * sideLength * this.words];
+    }
+
+    /**
+     * @return the side length of the grid
+     */
+    public int getSideLength() {
+        return this.sideLength;
+    }
+
+    /**
+     * @return the number of longs used for the candidates of a single field
+     */
+    public int getWords() {
+        return this.words;
+    }
+
+    /**
+     * @param index the index of the field
+     * @param word the index of the long within the field's bitmask
+     * @return a part of the bitmask of a field's candidates
+     */
+    public long getMask(int index, int word) {
+        return this.masks[index * this.words + word];
+    }
+
+    /**
+     * @param index the index of the field
+     * @param word the index of the long within the field's bitmask
+     * @param mask the new part of the bitmask of a field's candidates
+     */
+    public void setMask(int index, int word, long mask) {
+        this.masks[index * this.words + word] = mask;
+    }
+
+    /**
+     * @param index the index of the field
+     * @param number the number to test
+     * @return true iff a given number is a candidate for a given field
+     */
+    public boolean contains(int index, int number) {
+        return (this.masks[index * this.words + ((number - 1) >>> 6)] & (1L << (number - 1))) != 0;
+    }
+
+    /**
+     * Adds a number to the candidates of a field
+     * @param index the index of the field
+     * @param number the number to add
+     */
+    public void add(int index, int number) {
+        this.masks[index * this.words + ((number - 1) >>> 6)] |= 1L << (number - 1);
+    }
+
+    /**
+     * Removes a number from the candidates of a field
+     * @param index the index of the field
+     * @param number the number to remove
+     * @return true iff the number has been a candidate before
+     */
+    public boolean remove(int index, int number) {
+        int word = index * this.words + ((number - 1) >>> 6);
+        long bit = 1L << (number - 1);
+        boolean contained = (this.masks[word] & bit) != 0;
+        this.masks[word] &= ~bit;
+        return contained;
+    }
+
+    /**
+     * Removes all candidates of a field
+     * @param index the index of the field
+     */
+    public void clear(int index) {
+        for (int word = 0; word < this.words; word++) {
+            this.masks[index * this.words + word] = 0L;
+        }
+    }
+
+    /**
+     * @param index the index of the field
+     * @return the number of candidates of a field
+     */
+    public int count(int index) {
+        int count = 0;
+        for (int word = 0; word < this.words; word++) {
+            count += Long.bitCount(this.masks[index * this.words + word]);
+        }
+        return count;
+    }
+
+    /**
+     * @param index the index of the field
+     * @return the smallest candidate of a field or 0 if there is none
+     */
+    public int first(int index) {
+        for (int word = 0; word < this.words; word++) {
+            long mask = this.masks[index * this.words + word];
+            if (mask != 0L) {
+                return word * 64 + Long.numberOfTrailingZeros(mask) + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param index the index of the field
+     * @return the candidates of a field in ascending order
+     */
+    public int[] toArray(int index) {
+        int[] numbers = new int[this.count(index)];
+        int position = 0;
+        for (int word = 0; word < this.words; word++) {
+            long mask = this.masks[index * this.words + word];
+            while (mask != 0L) {
+                numbers[position++] = word * 64 + Long.numberOfTrailingZeros(mask) + 1;
+                mask &= mask - 1;
+            }
+        }
+        return numbers;
+    }
+}
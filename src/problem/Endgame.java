@@ -0,0 +1,104 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem;
+
+import problem.dlx.DancingLinks;
+import problem.habitat.Individual;
+import sudoku.SudokuGrid;
+
+/**
+ * Tries to complete an individual which is close to a solution. All variable fields
+ * within units that contain conflicts get cleared, the rest of the individual is kept
+ * as given and a bounded exact search tries to fill the cleared fields.
+ * An individual which has already been tried is not searched again as long as it stays unchanged.
+ */
+public final class Endgame {
+
+    private static final long SEARCH_LIMIT = 100000;
+
+    private final Problem problem;
+    private final int threshold;
+    private final int[] lastTried;
+    private int lastTriedConflicts;
+
+    /**
+     * Default constructor
+     * @param context the context of the solve
+     */
+    public Endgame(SolverContext context) {
+        this.problem = context.getProblem();
+        this.threshold = context.getEndgameThreshold();
+        this.lastTried = new int[this.problem.getVariableFields().length];
+        this.lastTriedConflicts = 0;
+    }
+
+    /**
+     * @param individual the individual to test
+     * @return true iff the individual is close enough to a solution to try to complete it
+     *         and differs from the individual tried last
+     */
+    public boolean applies(Individual individual) {
+        return individual.getConflicts() > 0 && individual.getConflicts() <= this.threshold &&
+                !this.isLastTried(individual);
+    }
+
+    /**
+     * @param individual the individual to compare
+     * @return true iff the individual has the same conflicts and chromosomes as the individual tried last
+     */
+    private boolean isLastTried(Individual individual) {
+        if (individual.getConflicts() != this.lastTriedConflicts) {
+            return false;
+        }
+        for (int i = 0; i < this.lastTried.length; i++) {
+            if (individual.readChromosome(i) != this.lastTried[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tries to complete an individual
+     * @param individual the individual to complete
+     * @return a completed copy of the individual without conflicts or null if no completion has been found
+     */
+    public Individual complete(Individual individual) {
+        for (int i = 0; i < this.lastTried.length; i++) {
+            this.lastTried[i] = individual.readChromosome(i);
+        }
+        this.lastTriedConflicts = individual.getConflicts();
+        SudokuGrid partial = new SudokuGrid(individual);
+        int sideLength = partial.getSideLength();
+        boolean[] conflictingUnits = new boolean[3 * sideLength];
+        for (int unit = 0; unit < 3 * sideLength; unit++) {
+            conflictingUnits[unit] = individual.hasConflicts(unit);
+        }
+        for (int index : this.problem.getVariableFields()) {
+            if (conflictingUnits[partial.getRowByIndex(index)] ||
+                    conflictingUnits[sideLength + partial.getColumnByIndex(index)] ||
+                    conflictingUnits[2 * sideLength + partial.getBlockByIndex(index)]) {
+                partial.write(index, 0);
+            }
+        }
+
+        DancingLinks dancingLinks = new DancingLinks(partial);
+        dancingLinks.setSearchLimit(Endgame.SEARCH_LIMIT);
+        SudokuGrid solved = dancingLinks.solve();
+        if (solved == null) {
+            return null;
+        }
+        Individual completed = new Individual(individual);
+        for (int index : this.problem.getVariableFields()) {
+            completed.write(index, solved.read(index));
+        }
+        return completed;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning one epoch of a world, from its start till the restart
+ * or till the world stops evolving
+ */
+@Name("gss.Epoch")
+@Label("Epoch")
+@Category("Genetic Sudoku Solver")
+@Description("One epoch between two restarts")
+final class EpochEvent extends Event {
+
+    @Label("Epoch")
+    int epoch;
+
+    @Label("Generations")
+    @Description("The number of generations of the epoch")
+    int generations;
+
+    @Label("Best Conflicts")
+    int bestConflicts;
+
+    @Label("Average Conflicts")
+    double avgConflicts;
+
+    @Label("Population Size")
+    int populationSize;
+
+    @Label("Restart")
+    @Description("True iff the epoch ended with a restart")
+    boolean restart;
+}
@@ -0,0 +1,42 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning the evolution of one generation of a world
+ */
+@Name("gss.Generation")
+@Label("Generation")
+@Category("Genetic Sudoku Solver")
+@Description("Evolution of one generation")
+final class GenerationEvent extends Event {
+
+    @Label("Epoch")
+    int epoch;
+
+    @Label("Generation")
+    @Description("The generation within the epoch")
+    int generation;
+
+    @Label("Best Conflicts")
+    int bestConflicts;
+
+    @Label("Average Conflicts")
+    double avgConflicts;
+
+    @Label("Population Size")
+    int populationSize;
+}
@@ -0,0 +1,36 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning one phase of preprocessing a problem
+ */
+@Name("gss.Presolve")
+@Label("Presolve Phase")
+@Category("Genetic Sudoku Solver")
+@Description("One phase of preprocessing and presolving a problem")
+final class PresolveEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Side Length")
+    int sideLength;
+
+    @Label("Empty Fields")
+    @Description("The number of empty fields after the phase")
+    int emptyFields;
+}
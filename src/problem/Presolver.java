@@ -0,0 +1,230 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem;
+
+import problem.technique.Technique;
+import sudoku.GridLayout;
+import sudoku.SudokuGrid;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills in the fields of a grid which can be determined by naked and hidden singles.
+ * The candidates of all fields are kept as bitmasks. Every inserted number only
+ * removes candidates from the fields sharing a unit with it, and only the units
+ * of changed fields get examined again. Optionally further logical techniques remove
+ * candidates whenever the singles are exhausted.
+ */
+final class Presolver {
+
+    private SudokuGrid grid;
+    private GridLayout layout;
+    private Set<Integer> variableFields;
+    private int leaveEmpty;
+    private List<Technique> techniques;
+    private Map<String, Integer> eliminations;
+    private Candidates candidates;
+    private int sideLength;
+    private int words;
+    private int[] queue;
+    private boolean[] queued;
+    private int queueHead;
+    private int queueSize;
+
+    /**
+     * Default constructor
+     * @param grid the grid to presolve
+     * @param variableFields the empty fields of the grid, inserted fields get removed
+     * @param leaveEmpty the number of fields which are left empty, even if they could be determined
+     * @param techniques the techniques to apply when no more singles can be found
+     */
+    Presolver(SudokuGrid grid, Set<Integer> variableFields, int leaveEmpty, List<Technique> techniques) {
+        this.grid = grid;
+        this.layout = grid.getLayout();
+        this.variableFields = variableFields;
+        this.leaveEmpty = leaveEmpty;
+        this.techniques = techniques;
+        this.eliminations = new LinkedHashMap<>();
+        for (Technique technique : techniques) {
+            this.eliminations.put(technique.getName(), 0);
+        }
+        this.sideLength = grid.getSideLength();
+        this.candidates = new Candidates(this.sideLength);
+        this.words = this.candidates.getWords();
+        this.queue = new int[3 * this.sideLength];
+        this.queued = new boolean[3 * this.sideLength];
+    }
+
+    /**
+     * Presolves the grid
+     * @return the candidates of the fields which are still empty
+     */
+    Candidates presolve() {
+        this.calculateCandidates();
+        this.propagateSingles();
+        boolean candidatesRemoved = true;
+        while (candidatesRemoved) {
+            candidatesRemoved = false;
+            for (Technique technique : this.techniques) {
+                int eliminated = technique.apply(this.grid, this.candidates);
+                if (eliminated > 0) {
+                    this.eliminations.put(technique.getName(), this.eliminations.get(technique.getName()) + eliminated);
+                    this.propagateSingles();
+                    candidatesRemoved = true;
+                    break;
+                }
+            }
+        }
+        return this.candidates;
+    }
+
+    /**
+     * @return for each technique the number of candidates it has removed
+     */
+    Map<String, Integer> getEliminations() {
+        return this.eliminations;
+    }
+
+    /**
+     * Examines all units and inserts naked and hidden singles till none are left
+     */
+    private void propagateSingles() {
+        for (int unit = 0; unit < 3 * this.sideLength; unit++) {
+            this.enqueue(unit);
+        }
+        while (this.queueSize > 0 && this.variableFields.size() > this.leaveEmpty) {
+            int unit = this.queue[this.queueHead];
+            this.queueHead = (this.queueHead + 1) % this.queue.length;
+            this.queueSize -= 1;
+            this.queued[unit] = false;
+            this.examineUnit(unit);
+        }
+    }
+
+    /**
+     * Calculates the candidates of all empty fields from the numbers used in their units
+     */
+    private void calculateCandidates() {
+        long[] used = new long[3 * this.sideLength * this.words];
+        for (int unit = 0; unit < 3 * this.sideLength; unit++) {
+            for (int index : this.layout.getUnit(unit)) {
+                int number = this.grid.read(index);
+                if (number > 0) {
+                    used[unit * this.words + ((number - 1) >>> 6)] |= 1L << (number - 1);
+                }
+            }
+        }
+        for (int index : this.variableFields) {
+            int row = this.grid.getRowByIndex(index);
+            int column = this.sideLength + this.grid.getColumnByIndex(index);
+            int block = 2 * this.sideLength + this.grid.getBlockByIndex(index);
+            for (int word = 0; word < this.words; word++) {
+                this.candidates.setMask(index, word, this.getAllNumbers(word) &
+                        ~used[row * this.words + word] &
+                        ~used[column * this.words + word] &
+                        ~used[block * this.words + word]);
+            }
+        }
+    }
+
+    /**
+     * Inserts the naked and hidden singles of a unit
+     * @param unit the number of the unit (rows first, then columns, then blocks)
+     */
+    private void examineUnit(int unit) {
+        int[] fields = this.layout.getUnit(unit);
+        for (int index : fields) {
+            if (this.grid.read(index) == 0 && this.candidates.count(index) == 1) {
+                if (!this.insert(index, this.candidates.first(index))) return;
+            }
+        }
+        for (int word = 0; word < this.words; word++) {
+            long once = 0L;
+            long more = 0L;
+            for (int index : fields) {
+                if (this.grid.read(index) == 0) {
+                    long mask = this.candidates.getMask(index, word);
+                    more |= once & mask;
+                    once |= mask;
+                }
+            }
+            long hiddenSingles = once & ~more;
+            while (hiddenSingles != 0L) {
+                int number = word * 64 + Long.numberOfTrailingZeros(hiddenSingles) + 1;
+                hiddenSingles &= hiddenSingles - 1;
+                for (int index : fields) {
+                    if (this.grid.read(index) == 0 && this.candidates.contains(index, number)) {
+                        if (!this.insert(index, number)) return;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts a number into the grid and removes it from the candidates of all fields sharing a unit
+     * @param index the index of the field
+     * @param number the number to insert
+     * @return false iff no more fields may be inserted
+     */
+    private boolean insert(int index, int number) {
+        if (this.variableFields.size() <= this.leaveEmpty) {
+            return false;
+        }
+        this.grid.write(index, number);
+        this.candidates.clear(index);
+        this.variableFields.remove(index);
+        this.eliminate(this.layout.getRow(this.grid.getRowByIndex(index)), number);
+        this.eliminate(this.layout.getColumn(this.grid.getColumnByIndex(index)), number);
+        this.eliminate(this.layout.getBlock(this.grid.getBlockByIndex(index)), number);
+        return true;
+    }
+
+    /**
+     * Removes a number from the candidates of the empty fields of a unit and
+     * queues the units of every field which lost a candidate
+     * @param fields the indices of the unit's fields
+     * @param number the number to remove
+     */
+    private void eliminate(int[] fields, int number) {
+        for (int index : fields) {
+            if (this.grid.read(index) == 0 && this.candidates.remove(index, number)) {
+                this.enqueue(this.grid.getRowByIndex(index));
+                this.enqueue(this.sideLength + this.grid.getColumnByIndex(index));
+                this.enqueue(2 * this.sideLength + this.grid.getBlockByIndex(index));
+            }
+        }
+    }
+
+    /**
+     * Queues a unit to be examined, unless it is queued already
+     * @param unit the number of the unit
+     */
+    private void enqueue(int unit) {
+        if (!this.queued[unit]) {
+            this.queued[unit] = true;
+            this.queue[(this.queueHead + this.queueSize) % this.queue.length] = unit;
+            this.queueSize += 1;
+        }
+    }
+
+    /**
+     * @param word the index of the long within a bitmask
+     * @return the part of a bitmask in which all numbers of the grid are set
+     */
+    private long getAllNumbers(int word) {
+        int bits = Math.min(64, this.sideLength - word * 64);
+        return (bits == 64) ? -1L : (1L << bits) - 1;
+    }
+}
@@ -9,7 +9,11 @@
 
 package problem;
 
-import problem.registry.Registry;
+import problem.technique.HiddenSubset;
+import problem.technique.LockedCandidates;
+import problem.technique.NakedSubset;
+import problem.technique.Technique;
+import problem.technique.XWing;
 import sudoku.SudokuGrid;
 
 import java.util.*;
@@ -22,59 +26,77 @@ public final class Problem {
 
     private SudokuGrid grid;
     private Set<Integer> variableFields;
-    private Map<Integer, Integer[]> variableFieldsForRows;
-    private Map<Integer, Integer[]> variableFieldsForColumns;
-    private Map<Integer, Integer[]> variableFieldsForBlocks;
-    private Map<Integer, Set<Integer>> validNumbers;
-    private Map<Integer, Integer[]> validNumbersArray;
+    private int[] variableFieldsArray;
+    private int[][] variableFieldsForRows;
+    private int[][] variableFieldsForColumns;
+    private int[][] variableFieldsForBlocks;
+    private int[][] missingNumbersForRows;
+    private Candidates validNumbers;
+    private int[][] validNumbersArray;
+    private Map<String, Integer> techniqueEliminations;
+    private int leaveEmpty;
+    private boolean techniques;
 
     /**
      * Default constructor. Takes an unfinished sudoku-grid and
      * preprocesses different things
      * @param grid The unfinished sudoku-grid which represents the problem
+     * @param leaveEmpty the number of fields the presolver leaves empty
+     * @param techniques true iff the presolver applies the logical techniques besides singles
      */
-    public Problem(SudokuGrid grid) {
+    public Problem(SudokuGrid grid, int leaveEmpty, boolean techniques) {
         this.grid = grid;
+        this.leaveEmpty = leaveEmpty;
+        this.techniques = techniques;
         this.preprocess();
     }
 
     /**
-     * @return variableFields
+     * The returned array maps a gene-index to a grid-index. It is shared by all individuals and must not be modified
+     * @return the indices of the variable fields in ascending order
      */
-    public Integer[] getVariableFields() {
-        return this.variableFields.toArray(new Integer[this.variableFields.size()]);
+    public int[] getVariableFields() {
+        return this.variableFieldsArray;
     }
 
     /**
      * @param row the index of the row to get the variable fields for
-     * @return an array of variable fields in a given row
+     * @return an array of variable fields in a given row (must not be modified)
      */
-    public Integer[] getVariableFieldsForRow(int row) {
-        return this.variableFieldsForRows.get(row);
+    public int[] getVariableFieldsForRow(int row) {
+        return this.variableFieldsForRows[row];
+    }
+
+    /**
+     * @param row the index of the row to get the missing numbers for
+     * @return the numbers which are not given in a row, in ascending order (must not be modified)
+     */
+    public int[] getMissingNumbersForRow(int row) {
+        return this.missingNumbersForRows[row];
     }
 
     /**
      * @param column the index of the column to get the variable fields for
-     * @return an array of variable fields in a given column
+     * @return an array of variable fields in a given column (must not be modified)
      */
-    public Integer[] getVariableFieldsForColumn(int column) {
-        return this.variableFieldsForColumns.get(column);
+    public int[] getVariableFieldsForColumn(int column) {
+        return this.variableFieldsForColumns[column];
     }
 
     /**
      * @param block the index of the block to get the variable fields for
-     * @return an array of variable fields in a given block
+     * @return an array of variable fields in a given block (must not be modified)
      */
-    public Integer[] getVariableFieldsForBlock(int block) {
-        return this.variableFieldsForBlocks.get(block);
+    public int[] getVariableFieldsForBlock(int block) {
+        return this.variableFieldsForBlocks[block];
     }
 
     /**
      * @param index the index to return the valid numbers for
      * @return array of valid numbers for a given index
      */
-    public Integer[] getValidNumbersForIndex(int index) {
-        return this.validNumbersArray.get(index);
+    public int[] getValidNumbersForIndex(int index) {
+        return this.validNumbersArray[index];
     }
 
     /**
@@ -83,17 +105,58 @@ public final class Problem {
      * @return true iff a given number is valid for a field with a given index
      */
     public boolean numberIsValidForIndex(int index, int number) {
-        return this.validNumbers.get(index).contains(number);
+        return this.validNumbers.contains(index, number);
+    }
+
+    /**
+     * @return true iff the presolved grid has conflicts or a variable field without any valid number,
+     *         so the problem has no solution
+     */
+    public boolean isContradictory() {
+        if (this.grid.getConflicts() > 0) {
+            return true;
+        }
+        for (int index : this.variableFieldsArray) {
+            if (this.validNumbersArray[index].length == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return for each logical technique the number of candidates it has removed while presolving
+     */
+    public Map<String, Integer> getTechniqueEliminations() {
+        return this.techniqueEliminations;
     }
 
     /**
      * Preprocesses different things
      */
     private void preprocess() {
-        this.preprocessVariableFields();
-        this.presolveGrid();
-        this.preprocessVariableFieldsUnits();
-        this.validNumbersToArray();
+        this.recordPhase("Variable fields", this::preprocessVariableFields);
+        this.recordPhase("Presolve", this::presolveGrid);
+        this.recordPhase("Unit tables", this::preprocessVariableFieldsUnits);
+        this.recordPhase("Candidate arrays", this::validNumbersToArray);
+    }
+
+    /**
+     * Runs a phase of the preprocessing within a flight recorder event
+     * @param name the name of the phase
+     * @param phase the phase to run
+     */
+    private void recordPhase(String name, Runnable phase) {
+        PresolveEvent event = new PresolveEvent();
+        event.begin();
+        phase.run();
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = name;
+            event.sideLength = this.grid.getSideLength();
+            event.emptyFields = this.grid.getNumberEmptyFields();
+            event.commit();
+        }
     }
 
     /**
@@ -104,12 +167,22 @@ public final class Problem {
     }
 
     /**
-     * Calculates for each row, column and block which fields need to be filled
+     * Calculates the table from gene-indices to grid-indices,
+     * for each row, column and block which fields need to be filled
+     * and for each row which numbers are missing
      */
     private void preprocessVariableFieldsUnits() {
-        this.variableFieldsForRows = new HashMap<>();
-        this.variableFieldsForColumns = new HashMap<>();
-        this.variableFieldsForBlocks = new HashMap<>();
+        this.variableFieldsArray = new int[this.variableFields.size()];
+        int gene = 0;
+        for (int index = 0; index < this.grid.getSideLength() * this.grid.getSideLength(); index++) {
+            if (this.variableFields.contains(index)) {
+                this.variableFieldsArray[gene++] = index;
+            }
+        }
+
+        this.variableFieldsForRows = new int[this.grid.getSideLength()][];
+        this.variableFieldsForColumns = new int[this.grid.getSideLength()][];
+        this.variableFieldsForBlocks = new int[this.grid.getSideLength()][];
 
         for (int unit = 0; unit < this.grid.getSideLength(); unit++) {
             ArrayList<Integer> variableFieldsForRow = new ArrayList<>();
@@ -134,116 +207,68 @@ public final class Problem {
                 }
             }
 
-            this.variableFieldsForRows.put(unit, variableFieldsForRow.toArray(new Integer[variableFieldsForRow.size()]));
-            this.variableFieldsForColumns.put(unit, variableFieldsForColumn.toArray(new Integer[variableFieldsForColumn.size()]));
-            this.variableFieldsForBlocks.put(unit, variableFieldsForBlock.toArray(new Integer[variableFieldsForBlock.size()]));
+            this.variableFieldsForRows[unit] = this.toIntArray(variableFieldsForRow);
+            this.variableFieldsForColumns[unit] = this.toIntArray(variableFieldsForColumn);
+            this.variableFieldsForBlocks[unit] = this.toIntArray(variableFieldsForBlock);
         }
-    }
 
-    /**
-     * Calculates an array which for each index on the problem-grid
-     * holds an array of numbers which don't interfere with the already fixed
-     * number on the problems grid
-     */
-    private void preprocessValidNumbers() {
-        this.validNumbers = new HashMap<>();
-        for (int index : this.getVariableFields()) {
-            Set<Integer> validNumbers = new HashSet<>();
-            for (int i = this.grid.getValidMin(); i <= this.grid.getValidMax(); i++) {
-                this.grid.write(index, i);
-                if (this.grid.getConflicts() == 0) {
-                    validNumbers.add(i);
+        this.missingNumbersForRows = new int[this.grid.getSideLength()][];
+        for (int row = 0; row < this.grid.getSideLength(); row++) {
+            boolean[] given = new boolean[this.grid.getSideLength() + 1];
+            for (int i = 0; i < this.grid.getSideLength(); i++) {
+                int field = this.grid.getIndexByRow(row, i);
+                if (!this.variableFields.contains(field)) {
+                    given[this.grid.read(field)] = true;
                 }
-                this.grid.write(index, 0);
             }
-            this.validNumbers.put(index, validNumbers);
-        }
-    }
-
-    /**
-     * Converts the valid-numbers set to arrays.
-     */
-    private void validNumbersToArray() {
-        this.validNumbersArray = new HashMap<>();
-        for (Map.Entry<Integer, Set<Integer>> validNumbers : this.validNumbers.entrySet()) {
-            this.validNumbersArray.put(
-                    validNumbers.getKey(),
-                    validNumbers.getValue().toArray(new Integer[validNumbers.getValue().size()])
-            );
+            ArrayList<Integer> missingNumbers = new ArrayList<>();
+            for (int number = 1; number <= this.grid.getSideLength(); number++) {
+                if (!given[number]) {
+                    missingNumbers.add(number);
+                }
+            }
+            this.missingNumbersForRows[row] = this.toIntArray(missingNumbers);
         }
     }
 
     /**
-     * Presolves the grid with the determined numbers
+     * @param list the list to convert
+     * @return the list as an array of primitives
      */
-    private void presolveGrid() {
-        boolean gridChanged = true;
-        int leaveEmpty = (int) Registry.getInstance().get("presolver-leave-empty");
-        while (gridChanged && this.variableFields.size() > leaveEmpty) {
-            this.preprocessValidNumbers();
-            gridChanged = this.insertFixedFields();
+    private int[] toIntArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
         }
-        this.preprocessValidNumbers();
+        return array;
     }
 
     /**
-     * Takes each variable field and looks if one of it's valid numbers is unique among its block, row or column.
-     * If so the valid number gets inserted into the grid
-     * @return true iff a number for a field has been inserted
+     * Converts the valid-numbers bitmasks to arrays indexed by field.
      */
-    private boolean insertFixedFields() {
-        Iterator<Integer> iterator = this.variableFields.iterator();
-        while (iterator.hasNext()) {
-            int index = iterator.next();
-            boolean fieldInserted;
-
-            fieldInserted = this.insertFixedFieldsForUnit(index, this.grid.getRowForIndex(index));
-            if (fieldInserted) {
-                iterator.remove();
-                return true;
-            }
-
-            fieldInserted = this.insertFixedFieldsForUnit(index, this.grid.getColumnForIndex(index));
-            if (fieldInserted) {
-                iterator.remove();
-                return true;
-            }
-
-            fieldInserted = this.insertFixedFieldsForUnit(index, this.grid.getBlockForIndex(index));
-            if (fieldInserted) {
-                iterator.remove();
-                return true;
-            }
+    private void validNumbersToArray() {
+        this.validNumbersArray = new int[this.grid.getSideLength() * this.grid.getSideLength()][];
+        for (int index = 0; index < this.validNumbersArray.length; index++) {
+            this.validNumbersArray[index] = this.validNumbers.toArray(index);
         }
-
-        return false;
     }
 
     /**
-     * Intersects the valid numbers of a field with a given index with all valid numbers from a given unit.
-     * If a exactly one valid number is left over it gets inserted into the grid
-     * @param index The index to look for a valid number for
-     * @param unit the unit from which the valid numbers get taken for the intersection
-     * @return true iff a valid number has been found and inserted
+     * Presolves the grid by propagating naked and hidden singles and, if enabled, by applying
+     * further logical techniques. Keeps the candidates of the remaining variable fields
      */
-    private boolean insertFixedFieldsForUnit(int index, int[] unit) {
-        Set<Integer> validNumbersCopy = new HashSet<>(this.validNumbers.get(index));
-        for (int unitIndex: unit) {
-            if (unitIndex != index && this.variableFields.contains(unitIndex)) {
-                Iterator<Integer> iterator = validNumbersCopy.iterator();
-                while (iterator.hasNext()) {
-                    int validNumber = iterator.next();
-                    if (this.validNumbers.get(unitIndex).contains(validNumber)) {
-                        iterator.remove();
-                    }
-                }
-            }
-        }
-        if (validNumbersCopy.size() == 1) {
-            this.grid.write(index, validNumbersCopy.iterator().next());
-            return true;
+    private void presolveGrid() {
+        List<Technique> techniques = new ArrayList<>();
+        if (this.techniques) {
+            techniques.add(new LockedCandidates());
+            techniques.add(new NakedSubset(2));
+            techniques.add(new HiddenSubset(2));
+            techniques.add(new NakedSubset(3));
+            techniques.add(new HiddenSubset(3));
+            techniques.add(new XWing());
         }
-
-        return false;
+        Presolver presolver = new Presolver(this.grid, this.variableFields, this.leaveEmpty, techniques);
+        this.validNumbers = presolver.presolve();
+        this.techniqueEliminations = presolver.getEliminations();
     }
 }
@@ -0,0 +1,284 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem;
+
+import problem.crossover.Crossover;
+import problem.fitness.FitnessFunction;
+import problem.fitness.FitnessTable;
+import problem.fitness.PowerFitness;
+import problem.habitat.Encoding;
+import problem.metrics.MetricsListener;
+import problem.mutation.Mutation;
+import problem.selection.Selection;
+import sudoku.SudokuGrid;
+
+/**
+ * Holds everything a single solve needs: the grid, the problem, the operators and
+ * the parameters. Every solve gets its own context, which is passed to the classes
+ * taking part in it, so independent solves can run at the same time.
+ * The context gets filled before solving starts and is only read afterwards.
+ */
+public final class SolverContext {
+
+    private SudokuGrid grid;
+    private Problem problem;
+    private Crossover crossover;
+    private Selection selection;
+    private Mutation mutation;
+    private FitnessTable fitnessTable;
+    private Encoding encoding;
+    private double elitismRate;
+    private double mutationRate;
+    private int populationSize;
+    private int populationsBeforeRestart;
+    private int threads;
+    private int migrationInterval;
+    private String migrationTopology;
+    private int endgameThreshold;
+    private int generationLimit;
+    private MetricsListener metricsListener;
+
+    /**
+     * Default constructor. The fitness is the reciprocal of the conflicts plus one, cubed,
+     * and individuals get filled cell by cell
+     * @param grid the presolved grid to solve
+     * @param problem the problem of the grid
+     */
+    public SolverContext(SudokuGrid grid, Problem problem) {
+        this.grid = grid;
+        this.problem = problem;
+        this.setFitnessFunction(new PowerFitness(3));
+        this.encoding = Encoding.CELLS;
+    }
+
+    /**
+     * @return the presolved grid to solve
+     */
+    public SudokuGrid getGrid() {
+        return this.grid;
+    }
+
+    /**
+     * @return the problem of the grid
+     */
+    public Problem getProblem() {
+        return this.problem;
+    }
+
+    /**
+     * @return the crossover (every world uses its own copy)
+     */
+    public Crossover getCrossover() {
+        return this.crossover;
+    }
+
+    /**
+     * @param crossover the crossover which every world copies
+     */
+    public void setCrossover(Crossover crossover) {
+        this.crossover = crossover;
+    }
+
+    /**
+     * @return the selection
+     */
+    public Selection getSelection() {
+        return this.selection;
+    }
+
+    /**
+     * @param selection the selection
+     */
+    public void setSelection(Selection selection) {
+        this.selection = selection;
+    }
+
+    /**
+     * @return the mutation
+     */
+    public Mutation getMutation() {
+        return this.mutation;
+    }
+
+    /**
+     * @param mutation the mutation (must be built with this context)
+     */
+    public void setMutation(Mutation mutation) {
+        this.mutation = mutation;
+    }
+
+    /**
+     * @return the fitness of every possible number of conflicts of the grid
+     */
+    public FitnessTable getFitnessTable() {
+        return this.fitnessTable;
+    }
+
+    /**
+     * @param fitnessFunction the fitness function, evaluated once for every possible number of conflicts of the grid
+     */
+    public void setFitnessFunction(FitnessFunction fitnessFunction) {
+        this.fitnessTable = new FitnessTable(fitnessFunction, this.grid.getSideLength());
+    }
+
+    /**
+     * @return how individuals get filled
+     */
+    public Encoding getEncoding() {
+        return this.encoding;
+    }
+
+    /**
+     * @param encoding how individuals get filled
+     */
+    public void setEncoding(Encoding encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * @return the share of the fittest individuals which get added to the next generation unchanged
+     */
+    public double getElitismRate() {
+        return this.elitismRate;
+    }
+
+    /**
+     * @param elitismRate the share of the fittest individuals which get added to the next generation unchanged
+     */
+    public void setElitismRate(double elitismRate) {
+        this.elitismRate = elitismRate;
+    }
+
+    /**
+     * @return the mutation-rate
+     */
+    public double getMutationRate() {
+        return this.mutationRate;
+    }
+
+    /**
+     * @param mutationRate the mutation-rate
+     */
+    public void setMutationRate(double mutationRate) {
+        this.mutationRate = mutationRate;
+    }
+
+    /**
+     * @return the number of individuals in a population
+     */
+    public int getPopulationSize() {
+        return this.populationSize;
+    }
+
+    /**
+     * @param populationSize the number of individuals in a population
+     */
+    public void setPopulationSize(int populationSize) {
+        this.populationSize = populationSize;
+    }
+
+    /**
+     * @return the number of stored elites before the population gets restarted with them
+     */
+    public int getPopulationsBeforeRestart() {
+        return this.populationsBeforeRestart;
+    }
+
+    /**
+     * @param populationsBeforeRestart the number of stored elites before the population gets restarted with them
+     */
+    public void setPopulationsBeforeRestart(int populationsBeforeRestart) {
+        this.populationsBeforeRestart = populationsBeforeRestart;
+    }
+
+    /**
+     * @return the number of threads breeding the descendants of a world
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * @param threads the number of threads breeding the descendants of a world
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * @return the number of generations between two migrations of an archipelago
+     */
+    public int getMigrationInterval() {
+        return this.migrationInterval;
+    }
+
+    /**
+     * @param migrationInterval the number of generations between two migrations of an archipelago
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * @return the migration topology of an archipelago ('ring' or 'random')
+     */
+    public String getMigrationTopology() {
+        return this.migrationTopology;
+    }
+
+    /**
+     * @param migrationTopology the migration topology of an archipelago ('ring' or 'random')
+     */
+    public void setMigrationTopology(String migrationTopology) {
+        this.migrationTopology = migrationTopology;
+    }
+
+    /**
+     * @return the number of conflicts from which on the endgame search is tried ('0' never)
+     */
+    public int getEndgameThreshold() {
+        return this.endgameThreshold;
+    }
+
+    /**
+     * @param endgameThreshold the number of conflicts from which on the endgame search is tried ('0' never)
+     */
+    public void setEndgameThreshold(int endgameThreshold) {
+        this.endgameThreshold = endgameThreshold;
+    }
+
+    /**
+     * @return the number of generations after which a world gives up ('0' never)
+     */
+    public int getGenerationLimit() {
+        return this.generationLimit;
+    }
+
+    /**
+     * @param generationLimit the number of generations after which a world gives up ('0' never)
+     */
+    public void setGenerationLimit(int generationLimit) {
+        this.generationLimit = generationLimit;
+    }
+
+    /**
+     * @return the listener receiving the measurements of every world (null if nothing gets measured)
+     */
+    public MetricsListener getMetricsListener() {
+        return this.metricsListener;
+    }
+
+    /**
+     * @param metricsListener the listener receiving the measurements of every world (null if nothing gets measured)
+     */
+    public void setMetricsListener(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+}
@@ -13,119 +13,460 @@ import io.GridWriter;
 import problem.crossover.Crossover;
 import problem.habitat.Individual;
 import problem.habitat.Population;
+import problem.metrics.Metrics;
+import problem.metrics.MetricsListener;
 import problem.mutation.Mutation;
-import problem.registry.Registry;
 import problem.selection.Selection;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Represents the world. Evolves a population till a satisfied
  * solution has been found.
  */
-public final class World {
+public final class World implements AutoCloseable {
 
     private Population population;
     private Population backupPopulation;
     private Population restartPopulation;
     private Population generationElites;
-    private ArrayList<Double> bestFitnessForGeneration;
+    private double[] bestFitnessForGeneration;
+    private int bestFitnessCount;
     private int generation;
     private int epoch;
+    private int generations;
+    private EpochEvent epochEvent;
+    private final GenerationEvent disabledGenerationEvent;
 
-    private int numberElites;
-    private Mutation mutation;
-    private Crossover crossover;
-    private Selection selection;
-    private int populationSize;
-    private int populationsBeforeRestart;
+    private final int numberElites;
+    private final Mutation mutation;
+    private final Crossover crossover;
+    private final Selection selection;
+    private final int populationSize;
+    private final int populationsBeforeRestart;
+    private final int threads;
+    private final int generationLimit;
+    private final ForkJoinPool pool;
+    private final Crossover[] crossovers;
+    private final Endgame endgame;
+    private final SolverContext context;
+    private final MetricsListener listener;
+    private final Metrics generationMetrics;
+    private final Metrics epochMetrics;
+    private final Metrics[] chunkMetrics;
+    private final Individual[] slots;
+    private final Individual[] descendants;
+    private final Individual[][] parents;
+    private final List<Callable<Void>> tasks;
+    private int breedCount;
 
     /**
      * Default constructor
+     * @param context the context of the solve
      */
-    public World() {
-        this.crossover = (Crossover) Registry.getInstance().get("crossover");
-        this.selection = (Selection) Registry.getInstance().get("selection");
-        this.mutation = (Mutation) Registry.getInstance().get("mutation");
-        this.populationSize = (int) Registry.getInstance().get("population-size");
-        this.populationsBeforeRestart = (int) Registry.getInstance().get("populations-before-restart");
-        this.numberElites = (int) (this.populationSize * ((double) Registry.getInstance().get("elitism-rate")));
-        this.population = new Population();
+    public World(SolverContext context) {
+        if (context.getProblem().isContradictory()) {
+            throw new IllegalArgumentException("The problem has no solution, a field has no valid number");
+        }
+        this.context = context;
+        this.crossover = context.getCrossover().copy();
+        this.selection = context.getSelection();
+        this.mutation = context.getMutation();
+        this.populationSize = context.getPopulationSize();
+        this.populationsBeforeRestart = context.getPopulationsBeforeRestart();
+        this.numberElites = (int) (this.populationSize * context.getElitismRate());
+        this.threads = context.getThreads();
+        this.generationLimit = context.getGenerationLimit();
+        this.listener = context.getMetricsListener();
+        this.generationMetrics = (this.listener != null) ? new Metrics() : null;
+        this.epochMetrics = (this.listener != null) ? new Metrics() : null;
+        this.pool = (this.threads > 1) ? new ForkJoinPool(this.threads) : null;
+        this.crossovers = new Crossover[(this.pool == null) ? 0 : this.threads];
+        this.chunkMetrics = new Metrics[this.crossovers.length];
+        for (int i = 0; i < this.crossovers.length; i++) {
+            this.crossovers[i] = this.crossover.copy();
+            this.chunkMetrics[i] = (this.listener != null) ? new Metrics() : null;
+        }
+        this.endgame = (context.getEndgameThreshold() > 0) ? new Endgame(context) : null;
+        this.slots = new Individual[this.populationSize];
+        this.descendants = new Individual[this.populationSize];
+        this.parents = new Individual[Math.max(1, this.crossovers.length)][0];
+        this.tasks = new ArrayList<>();
+        for (int i = 0; i < this.crossovers.length; i++) {
+            int chunk = i;
+            this.tasks.add(() -> {
+                this.breedChunk(chunk);
+                return null;
+            });
+        }
+        this.population = new Population(context);
         this.population.createRandom();
         this.backupPopulation = new Population(this.population);
         this.restartPopulation = new Population(this.population);
-        this.generationElites = new Population();
-        this.bestFitnessForGeneration = new ArrayList<>();
+        this.generationElites = new Population(this.context);
+        this.bestFitnessForGeneration = new double[20];
+        this.bestFitnessCount = 0;
         this.generation = 1;
         this.epoch = 1;
+        this.epochEvent = new EpochEvent();
+        this.epochEvent.begin();
+        this.disabledGenerationEvent = new GenerationEvent();
     }
 
     /**
      * Resets the population to the starting-population. If the generation-elites population is full
      * it is used as the new population. If this is not the case the best few individuals are added to the
-     * generation-elites population
+     * generation-elites population. The stored elites share the grids of their originals
      */
     private void restart() {
         GridWriter.printElite(this.population.getBest(), this.epoch, this.generation, this.population.getAvgFitness(), this.population.getAvgConflicts());
+        this.endEpoch(true);
         if (this.generationElites.isFull()) {
-            this.restartPopulation = new Population(this.generationElites);
-            this.generationElites = new Population();
+            this.restartPopulation = this.generationElites;
+            this.generationElites = new Population(this.context);
         } else {
             this.generationElites.add(this.population.get(this.populationSize / this.populationsBeforeRestart));
         }
-        this.population = new Population(this.restartPopulation);
-        this.bestFitnessForGeneration = new ArrayList<>();
+        this.refill(this.population, this.restartPopulation);
+        this.bestFitnessCount = 0;
         this.epoch += 1;
         this.generation = 1;
+        this.epochEvent = new EpochEvent();
+        this.epochEvent.begin();
+    }
+
+    /**
+     * Overwrites the individuals of a population in place with the individuals of another population
+     * @param population the population to overwrite
+     * @param source the population to copy
+     */
+    private void refill(Population population, Population source) {
+        int numberSlots = population.size();
+        for (int i = 0; i < numberSlots; i++) {
+            this.slots[i] = population.getByRank(i);
+        }
+        population.clear();
+        for (int i = 0; i < source.size(); i++) {
+            if (i < numberSlots) {
+                this.slots[i].copyFrom(source.getByRank(i));
+                population.add(this.slots[i]);
+            } else {
+                population.add(new Individual(source.getByRank(i)));
+            }
+        }
+        population.rank();
     }
 
     /**
      * Finds a solution. Evolves a population and restart the evolution-process if necessary
-     * @return a valid solution to the problem
+     * @return a valid solution to the problem or the best individual if the generation-limit has been reached
      */
     public Individual findSolution() {
-        while (this.population.getBest().getConflicts() > 0) {
-            this.evolvePopulation();
-            this.bestFitnessForGeneration.add(this.population.getBest().getFitness());
-            if (this.bestFitnessForGeneration.size() - 20 >= 0 &&
-                    this.population.getBest().getFitness() <= this.bestFitnessForGeneration.get(this.bestFitnessForGeneration.size() - 20)) {
-                this.restart();
+        while (this.getBest().getConflicts() > 0 && !this.isExhausted()) {
+            this.step();
+        }
+        this.endEpoch(false);
+        return this.getBest();
+    }
+
+    /**
+     * Ends the current epoch. Commits its flight recorder event and reports its measurements
+     * to the metrics-listener (if any)
+     * @param restart true iff the epoch ends because of a restart
+     */
+    void endEpoch(boolean restart) {
+        this.epochEvent.end();
+        if (this.epochEvent.shouldCommit()) {
+            this.epochEvent.epoch = this.epoch;
+            this.epochEvent.generations = this.generation - 1;
+            this.epochEvent.bestConflicts = this.population.getBest().getConflicts();
+            this.epochEvent.avgConflicts = this.population.getAvgConflicts();
+            this.epochEvent.populationSize = this.population.size();
+            this.epochEvent.restart = restart;
+            this.epochEvent.commit();
+        }
+        if (this.listener == null || this.epochMetrics.getGenerations() == 0) {
+            return;
+        }
+        this.epochMetrics.setState(this.epoch, this.generation, this.population.getBest().getConflicts(),
+                this.population.getAvgConflicts(), this.epoch - 1);
+        this.listener.epochEnded(this.epochMetrics);
+        this.epochMetrics.reset();
+    }
+
+    /**
+     * Shuts the pool of the breeding threads (if any) down. The world must not be stepped afterwards,
+     * but its best individual and its number of generations can still be read
+     */
+    @Override
+    public void close() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    /**
+     * @return true iff the generation-limit has been reached ('0' never exhausts)
+     */
+    public boolean isExhausted() {
+        return this.generationLimit > 0 && this.generations >= this.generationLimit;
+    }
+
+    /**
+     * @return the number of generations evolved over all epochs
+     */
+    public int getGenerations() {
+        return this.generations;
+    }
+
+    /**
+     * Evolves the population by one generation and restarts the evolution-process if necessary.
+     * If the best individual is close to a solution, an exact search tries to complete it first
+     */
+    public void step() {
+        this.evolvePopulation();
+        if (this.endgame != null && this.endgame.applies(this.population.getBest())) {
+            Individual completed = this.endgame.complete(this.population.getBest());
+            if (completed != null) {
+                this.immigrate(new Individual[]{completed});
+                return;
             }
         }
+        double bestFitness = this.population.getBest().getFitness();
+        int window = this.bestFitnessForGeneration.length;
+        this.bestFitnessForGeneration[this.bestFitnessCount % window] = bestFitness;
+        this.bestFitnessCount += 1;
+        // the oldest entry of the window is the best fitness of 19 generations ago
+        if (this.bestFitnessCount >= window &&
+                bestFitness <= this.bestFitnessForGeneration[this.bestFitnessCount % window]) {
+            this.restart();
+        }
+    }
+
+    /**
+     * @return the best individual of the current population
+     */
+    public Individual getBest() {
         return this.population.getBest();
     }
 
     /**
-     * Evolves the population to the next generation
+     * @return copies of the best individuals which get sent to other worlds (at least one)
+     */
+    public Individual[] getEmigrants() {
+        return this.population.get(Math.max(1, this.numberElites));
+    }
+
+    /**
+     * Replaces the worst individuals of the current population with individuals from another world
+     * @param immigrants the individuals to take in (must not be used by any other world)
+     */
+    public void immigrate(Individual[] immigrants) {
+        Population newPopulation = new Population(this.context);
+        newPopulation.add(immigrants);
+        for (Individual individual : this.population) {
+            if (newPopulation.isFull()) break;
+            newPopulation.add(individual);
+        }
+        newPopulation.rank();
+        this.population = newPopulation;
+    }
+
+    /**
+     * Evolves the population to the next generation. The population of the previous generation
+     * is not used anymore, so its individuals get overwritten in place by the elites and descendants
+     * and it becomes the new population, so the individuals, the populations and the breeding arrays are reused.
+     * A flight recorder event only gets created while generation events are recorded.
      */
     private void evolvePopulation() {
-        Population newPopulation = new Population();
-        this.addElites(newPopulation);
-        this.addDescendants(newPopulation);
+        // never committed while disabled, so the same event can be used for every generation
+        GenerationEvent event = this.disabledGenerationEvent.isEnabled() ? new GenerationEvent() : this.disabledGenerationEvent;
+        event.begin();
+        long start = (this.listener != null) ? System.nanoTime() : 0;
+        long allocated = (this.listener != null) ? Metrics.getThreadAllocatedBytes() : 0;
+        Population newPopulation = this.backupPopulation;
+        int numberSlots = newPopulation.size();
+        for (int i = 0; i < numberSlots; i++) {
+            this.slots[i] = newPopulation.getByRank(i);
+        }
+        newPopulation.clear();
+        int elites = this.addElites(newPopulation, numberSlots);
+        this.addDescendants(newPopulation, numberSlots - elites);
+        long ranking = (this.listener != null) ? System.nanoTime() : 0;
+        newPopulation.rank();
         this.backupPopulation = this.population;
         this.population = newPopulation;
         this.generation += 1;
+        this.generations += 1;
+        event.end();
+        if (event.shouldCommit()) {
+            event.epoch = this.epoch;
+            event.generation = this.generation;
+            event.bestConflicts = this.population.getBest().getConflicts();
+            event.avgConflicts = this.population.getAvgConflicts();
+            event.populationSize = this.population.size();
+            event.commit();
+        }
+        if (this.listener != null) {
+            long end = System.nanoTime();
+            this.generationMetrics.addInsertionNanos(end - ranking);
+            this.generationMetrics.addWallNanos(end - start);
+            this.generationMetrics.addAllocatedBytes(Metrics.getThreadAllocatedBytes() - allocated);
+            this.generationMetrics.addGenerations(1);
+            this.generationMetrics.setState(this.epoch, this.generation, this.population.getBest().getConflicts(),
+                    this.population.getAvgConflicts(), this.epoch - 1);
+            this.listener.generationEvolved(this.generationMetrics);
+            this.epochMetrics.add(this.generationMetrics);
+            this.generationMetrics.reset();
+        }
     }
 
     /**
-     * Adds the elites to the new population
+     * Copies the elites into the last slots of the new population
      * @param newPopulation the population to add the elites to
+     * @param numberSlots the number of individuals which can be overwritten
+     * @return the number of added elites
      */
-    private void addElites(Population newPopulation) {
-        newPopulation.add(this.population.get(this.numberElites));
+    private int addElites(Population newPopulation, int numberSlots) {
+        long start = (this.listener != null) ? System.nanoTime() : 0;
+        int elites = Math.min(this.numberElites, Math.min(numberSlots, this.population.size()));
+        for (int i = 0; i < elites; i++) {
+            Individual elite = this.slots[numberSlots - 1 - i];
+            elite.copyFrom(this.population.getByRank(i));
+            newPopulation.add(elite);
+        }
+        if (this.listener != null) {
+            this.generationMetrics.addInsertionNanos(System.nanoTime() - start);
+        }
+        return elites;
     }
 
     /**
-     * Adds the descendants of the current population to a new population
+     * Breeds the descendants of the current population onto the first slots and adds them to the new population
      * @param newPopulation the population to add the descendants to
+     * @param numberSlots the number of individuals which can be overwritten
+     */
+    private void addDescendants(Population newPopulation, int numberSlots) {
+        this.breedCount = Math.min(this.populationSize - this.numberElites, numberSlots);
+        if (this.pool == null) {
+            this.breed(this.crossover, this.getParents(0, this.breedCount), 0, this.breedCount, this.generationMetrics);
+        } else {
+            this.breedParallel();
+        }
+        long start = (this.listener != null) ? System.nanoTime() : 0;
+        for (int i = 0; i < this.breedCount; i++) {
+            newPopulation.add(this.descendants[i]);
+        }
+        if (this.listener != null) {
+            this.generationMetrics.addInsertionNanos(System.nanoTime() - start);
+            this.generationMetrics.addEvaluated(this.breedCount);
+        }
+    }
+
+    /**
+     * @param chunk the index of the chunk which breeds with the parents
+     * @param number the number of descendants of the chunk
+     * @return the reused array for the parents of the chunk
+     */
+    private Individual[] getParents(int chunk, int number) {
+        int length = number * this.crossover.getNumberParents();
+        if (this.parents[chunk].length != length) {
+            this.parents[chunk] = new Individual[length];
+        }
+        return this.parents[chunk];
+    }
+
+    /**
+     * Breeds one chunk of the descendants on a thread of the pool
+     * @param chunk the index of the chunk
+     */
+    private void breedChunk(int chunk) {
+        int from = (int) ((long) this.breedCount * chunk / this.threads);
+        int to = (int) ((long) this.breedCount * (chunk + 1) / this.threads);
+        Metrics metrics = this.chunkMetrics[chunk];
+        long allocated = (metrics != null) ? Metrics.getThreadAllocatedBytes() : 0;
+        this.breed(this.crossovers[chunk], this.getParents(chunk, to - from), from, to, metrics);
+        if (metrics != null) {
+            metrics.addAllocatedBytes(Metrics.getThreadAllocatedBytes() - allocated);
+        }
+    }
+
+    /**
+     * Splits the breeding of the descendants into one chunk per thread and waits till all chunks are done
+     */
+    private void breedParallel() {
+        try {
+            for (Future<Void> future : this.pool.invokeAll(this.tasks)) {
+                future.get();
+            }
+            if (this.listener != null) {
+                for (Metrics metrics : this.chunkMetrics) {
+                    this.generationMetrics.add(metrics);
+                    metrics.reset();
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while breeding descendants", exception);
+        } catch (ExecutionException exception) {
+            throw new RuntimeException("Breeding descendants failed", exception.getCause());
+        }
+    }
+
+    /**
+     * Breeds descendants by crossing selected parents onto the slots and mutating the result.
+     * The parents for the whole range get selected at once.
+     * Only reads the current population, so disjoint ranges can be bred concurrently.
+     * @param crossover the crossover to use (must not be shared with other threads)
+     * @param parents the array to select the parents into (must not be shared with other threads)
+     * @param from the first index to breed (incl.)
+     * @param to the last index to breed (excl.)
+     * @param metrics the measurements to add the times of the breeding phases to (null if not measured)
+     */
+    private void breed(Crossover crossover, Individual[] parents, int from, int to, Metrics metrics) {
+        if (metrics != null) {
+            this.breedMeasured(crossover, parents, from, to, metrics);
+            return;
+        }
+        this.selection.select(this.population, parents);
+        int parent = 0;
+        for (int i = from; i < to; i++) {
+            crossover.setSculpture(this.slots[i]);
+            while (crossover.needsParent()) crossover.addParent(parents[parent++]);
+            this.descendants[i] = this.mutation.mutate(crossover.cross());
+        }
+    }
+
+    /**
+     * Breeds like breed() but measures the time spent in selection, crossover and mutation
+     * @param crossover the crossover to use (must not be shared with other threads)
+     * @param parents the array to select the parents into (must not be shared with other threads)
+     * @param from the first index to breed (incl.)
+     * @param to the last index to breed (excl.)
+     * @param metrics the measurements to add the times to
      */
-    private void addDescendants(Population newPopulation) {
-        int counter = this.numberElites;
-        for (Individual sculpture : this.backupPopulation) {
-            this.crossover.setSculpture(sculpture);
-            while (this.crossover.needsParent()) this.crossover.addParent(this.selection.select(this.population));
-            newPopulation.add(this.mutation.mutate(this.crossover.cross()));
-            if (++counter == this.populationSize) break;
+    private void breedMeasured(Crossover crossover, Individual[] parents, int from, int to, Metrics metrics) {
+        long time = System.nanoTime();
+        this.selection.select(this.population, parents);
+        long now = System.nanoTime();
+        metrics.addSelectionNanos(now - time);
+        int parent = 0;
+        for (int i = from; i < to; i++) {
+            time = now;
+            crossover.setSculpture(this.slots[i]);
+            while (crossover.needsParent()) crossover.addParent(parents[parent++]);
+            Individual child = crossover.cross();
+            now = System.nanoTime();
+            metrics.addCrossoverNanos(now - time);
+            time = now;
+            this.descendants[i] = this.mutation.mutate(child);
+            now = System.nanoTime();
+            metrics.addMutationNanos(now - time);
         }
     }
 }
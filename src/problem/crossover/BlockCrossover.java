@@ -0,0 +1,38 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.crossover;
+
+import problem.habitat.Individual;
+
+/**
+ * Crosses multiple parents to one individual by taking every block as a whole from one parent,
+ * so the conflicts within blocks are inherited and only the counters of
+ * the rows and columns have to be recounted.
+ */
+public final class BlockCrossover extends UnitCrossover {
+
+    /**
+     * Default constructor
+     * @param numParents the number of parents to use for the crossover
+     */
+    public BlockCrossover(int numParents) {
+        super(numParents);
+    }
+
+    @Override
+    protected void copyUnits(Individual sculpture, Individual[] sources) {
+        sculpture.copyBlocks(sources);
+    }
+
+    @Override
+    public Crossover copy() {
+        return new BlockCrossover(this.getNumberParents());
+    }
+}
@@ -33,9 +33,20 @@ public interface Crossover {
      */
     boolean needsParent();
 
+    /**
+     * @return the number of parents the crossover needs for one descendant
+     */
+    int getNumberParents();
+
     /**
      * Executes the crossover
      * @return the changed sculpture
      */
     Individual cross();
+
+    /**
+     * Crossovers keep state between addParent and cross, so every thread needs its own instance
+     * @return a new crossover with the same configuration
+     */
+    Crossover copy();
 }
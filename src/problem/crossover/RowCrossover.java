@@ -0,0 +1,38 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.crossover;
+
+import problem.habitat.Individual;
+
+/**
+ * Crosses multiple parents to one individual by taking every row as a whole from one parent.
+ * A permutation of the row's missing numbers stays one, so only the counters of
+ * the columns and blocks have to be recounted.
+ */
+public final class RowCrossover extends UnitCrossover {
+
+    /**
+     * Default constructor
+     * @param numParents the number of parents to use for the crossover
+     */
+    public RowCrossover(int numParents) {
+        super(numParents);
+    }
+
+    @Override
+    protected void copyUnits(Individual sculpture, Individual[] sources) {
+        sculpture.copyRows(sources);
+    }
+
+    @Override
+    public Crossover copy() {
+        return new RowCrossover(this.getNumberParents());
+    }
+}
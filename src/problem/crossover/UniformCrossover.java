@@ -10,7 +10,8 @@
 package problem.crossover;
 
 import problem.habitat.Individual;
-import problem.registry.Registry;
+
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Crosses multiple parents to one individual, where for each chromosome
@@ -50,16 +51,26 @@ public final class UniformCrossover implements Crossover {
         return this.parentIndex < this.parents.length;
     }
 
+    @Override
+    public int getNumberParents() {
+        return this.parents.length;
+    }
+
     @Override
     public Individual cross() {
         if (this.needsParent()) {
             throw new RuntimeException("Uniformselection needs more parents before cross can be executed");
         }
-        for (int i = 0; i < this.sculpture.getGene().length; i++) {
-            int randomIndex = (int) (Math.random() * this.parents.length);
+        for (int i = 0; i < this.sculpture.getGeneLength(); i++) {
+            int randomIndex = ThreadLocalRandom.current().nextInt(this.parents.length);
             this.sculpture.writeChromosome(i, this.parents[randomIndex].readChromosome(i));
         }
         this.parentIndex = 0;
         return this.sculpture;
     }
+
+    @Override
+    public Crossover copy() {
+        return new UniformCrossover(this.parents.length);
+    }
 }
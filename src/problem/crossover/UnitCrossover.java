@@ -0,0 +1,85 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.crossover;
+
+import problem.habitat.Individual;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Crosses multiple parents to one individual, where for each unit (row or block) each
+ * parent has the same probability to be chosen. Every unit is taken from its parent
+ * as a whole and gets copied in bulk together with its usage counters.
+ */
+public abstract class UnitCrossover implements Crossover {
+
+    private Individual sculpture;
+    private final Individual[] parents;
+    private int parentIndex;
+    private Individual[] sources;
+
+    /**
+     * Default constructor
+     * @param numParents the number of parents to use for the crossover
+     */
+    protected UnitCrossover(int numParents) {
+        this.parents = new Individual[numParents];
+        this.parentIndex = 0;
+        this.sources = new Individual[0];
+    }
+
+    /**
+     * Overwrites every unit of the sculpture with the same unit of its source
+     * @param sculpture the individual to write on
+     * @param sources for every unit the parent to take it from
+     */
+    protected abstract void copyUnits(Individual sculpture, Individual[] sources);
+
+    @Override
+    public void setSculpture(Individual sculpture) {
+        this.sculpture = sculpture;
+    }
+
+    @Override
+    public void addParent(Individual individual) {
+        if (individual == null) {
+            throw new IllegalArgumentException("Parent cannot be null in a unit-crossover");
+        }
+        this.parents[this.parentIndex] = individual;
+        this.parentIndex += 1;
+    }
+
+    @Override
+    public boolean needsParent() {
+        return this.parentIndex < this.parents.length;
+    }
+
+    @Override
+    public int getNumberParents() {
+        return this.parents.length;
+    }
+
+    @Override
+    public Individual cross() {
+        if (this.needsParent()) {
+            throw new RuntimeException("Unitcrossover needs more parents before cross can be executed");
+        }
+        if (this.sources.length != this.sculpture.getSideLength()) {
+            this.sources = new Individual[this.sculpture.getSideLength()];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int unit = 0; unit < this.sources.length; unit++) {
+            this.sources[unit] = this.parents[random.nextInt(this.parents.length)];
+        }
+        this.copyUnits(this.sculpture, this.sources);
+        this.parentIndex = 0;
+        return this.sculpture;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.dlx;
+
+import sudoku.SudokuGrid;
+
+/**
+ * Solves a sudoku-grid exactly with Knuth's Algorithm X on dancing links.
+ * The grid is translated to an exact cover problem with one column per
+ * constraint (each field, each number in each row, column and block) and
+ * one row per candidate number of a field. The links are kept in int-arrays.
+ */
+public final class DancingLinks {
+
+    private static final int ROOT = 0;
+
+    private SudokuGrid grid;
+    private int sideLength;
+    private int[] left;
+    private int[] right;
+    private int[] up;
+    private int[] down;
+    private int[] column;
+    private int[] columnSize;
+    private int[] rowField;
+    private int[] rowNumber;
+    private int[] solution;
+    private int solutionLength;
+    private int nodes;
+    private long searchLimit;
+    private long searches;
+
+    /**
+     * Default constructor. Builds the exact cover matrix of a grid
+     * @param grid the grid to solve, filled fields are taken as given
+     */
+    public DancingLinks(SudokuGrid grid) {
+        this.grid = grid;
+        this.sideLength = grid.getSideLength();
+        int fields = this.sideLength * this.sideLength;
+        int columns = 4 * fields;
+        int rows = this.countRows();
+
+        int size = 1 + columns + 4 * rows;
+        this.left = new int[size];
+        this.right = new int[size];
+        this.up = new int[size];
+        this.down = new int[size];
+        this.column = new int[size];
+        this.columnSize = new int[columns + 1];
+        this.rowField = new int[size];
+        this.rowNumber = new int[size];
+        this.solution = new int[fields];
+
+        for (int header = 0; header <= columns; header++) {
+            this.left[header] = (header == 0) ? columns : header - 1;
+            this.right[header] = (header == columns) ? 0 : header + 1;
+            this.up[header] = header;
+            this.down[header] = header;
+            this.column[header] = header;
+        }
+        this.nodes = columns + 1;
+        this.searchLimit = Long.MAX_VALUE;
+
+        for (int index = 0; index < fields; index++) {
+            int given = grid.read(index);
+            for (int number = 1; number <= this.sideLength; number++) {
+                if ((given == 0 && this.isCandidate(index, number)) || given == number) {
+                    this.addRow(index, number);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bounds the search. If no solution has been found after the given number of
+     * search steps, the search is given up
+     * @param searchLimit the maximum number of search steps
+     */
+    public void setSearchLimit(long searchLimit) {
+        this.searchLimit = searchLimit;
+    }
+
+    /**
+     * Searches for a solution
+     * @return a solved copy of the grid or null if the grid has no solution or the search limit has been reached
+     */
+    public SudokuGrid solve() {
+        this.searches = 0;
+        if (!this.search(0)) {
+            return null;
+        }
+        SudokuGrid solved = new SudokuGrid(this.grid);
+        for (int i = 0; i < this.solutionLength; i++) {
+            int node = this.solution[i];
+            if (solved.read(this.rowField[node]) == 0) {
+                solved.write(this.rowField[node], this.rowNumber[node]);
+            }
+        }
+        return solved;
+    }
+
+    /**
+     * Recursively covers the column with the fewest rows and tries each of its rows
+     * @param depth the number of rows chosen so far
+     * @return true iff a solution has been found
+     */
+    private boolean search(int depth) {
+        if (this.right[ROOT] == ROOT) {
+            this.solutionLength = depth;
+            return true;
+        }
+        if (++this.searches > this.searchLimit) {
+            return false;
+        }
+        int chosen = this.right[ROOT];
+        for (int header = this.right[ROOT]; header != ROOT; header = this.right[header]) {
+            if (this.columnSize[header] < this.columnSize[chosen]) {
+                chosen = header;
+            }
+        }
+        if (this.columnSize[chosen] == 0) {
+            return false;
+        }
+        this.cover(chosen);
+        for (int row = this.down[chosen]; row != chosen; row = this.down[row]) {
+            this.solution[depth] = row;
+            for (int node = this.right[row]; node != row; node = this.right[node]) {
+                this.cover(this.column[node]);
+            }
+            if (this.search(depth + 1)) {
+                return true;
+            }
+            for (int node = this.left[row]; node != row; node = this.left[node]) {
+                this.uncover(this.column[node]);
+            }
+        }
+        this.uncover(chosen);
+        return false;
+    }
+
+    /**
+     * Removes a column and all rows intersecting it from the matrix
+     * @param header the header of the column
+     */
+    private void cover(int header) {
+        this.right[this.left[header]] = this.right[header];
+        this.left[this.right[header]] = this.left[header];
+        for (int row = this.down[header]; row != header; row = this.down[row]) {
+            for (int node = this.right[row]; node != row; node = this.right[node]) {
+                this.down[this.up[node]] = this.down[node];
+                this.up[this.down[node]] = this.up[node];
+                this.columnSize[this.column[node]] -= 1;
+            }
+        }
+    }
+
+    /**
+     * Restores a column and all rows intersecting it, the exact reverse of cover
+     * @param header the header of the column
+     */
+    private void uncover(int header) {
+        for (int row = this.up[header]; row != header; row = this.up[row]) {
+            for (int node = this.left[row]; node != row; node = this.left[node]) {
+                this.columnSize[this.column[node]] += 1;
+                this.down[this.up[node]] = node;
+                this.up[this.down[node]] = node;
+            }
+        }
+        this.right[this.left[header]] = header;
+        this.left[this.right[header]] = header;
+    }
+
+    /**
+     * @return the number of rows of the exact cover matrix
+     */
+    private int countRows() {
+        int rows = 0;
+        for (int index = 0; index < this.sideLength * this.sideLength; index++) {
+            int given = this.grid.read(index);
+            for (int number = 1; number <= this.sideLength; number++) {
+                if ((given == 0 && this.isCandidate(index, number)) || given == number) {
+                    rows += 1;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @param index the index of an empty field
+     * @param number the number to test
+     * @return true iff the number isn't used in the field's row, column or block yet
+     */
+    private boolean isCandidate(int index, int number) {
+        for (int[] unit : new int[][]{
+                this.grid.getRowForIndex(index),
+                this.grid.getColumnForIndex(index),
+                this.grid.getBlockForIndex(index)}) {
+            for (int unitIndex : unit) {
+                if (this.grid.read(unitIndex) == number) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends the row for a number in a field, which covers the field, the number in the
+     * field's row, the number in the field's column and the number in the field's block
+     * @param index the index of the field
+     * @param number the number
+     */
+    private void addRow(int index, int number) {
+        int fields = this.sideLength * this.sideLength;
+        int first = this.nodes;
+        int[] headers = {
+                1 + index,
+                1 + fields + this.grid.getRowByIndex(index) * this.sideLength + number - 1,
+                1 + 2 * fields + this.grid.getColumnByIndex(index) * this.sideLength + number - 1,
+                1 + 3 * fields + this.grid.getBlockByIndex(index) * this.sideLength + number - 1
+        };
+        for (int i = 0; i < headers.length; i++) {
+            int node = first + i;
+            int header = headers[i];
+            this.column[node] = header;
+            this.rowField[node] = index;
+            this.rowNumber[node] = number;
+            this.up[node] = this.up[header];
+            this.down[node] = header;
+            this.down[this.up[header]] = node;
+            this.up[header] = node;
+            this.columnSize[header] += 1;
+            this.left[node] = (i == 0) ? first + headers.length - 1 : node - 1;
+            this.right[node] = (i == headers.length - 1) ? first : node + 1;
+        }
+        this.nodes += headers.length;
+    }
+}
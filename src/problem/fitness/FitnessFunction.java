@@ -0,0 +1,24 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.fitness;
+
+/**
+ * Interface for the fitness of an individual. The fitness only depends on the number of conflicts,
+ * so it gets evaluated once per possible number of conflicts and looked up afterwards.
+ */
+public interface FitnessFunction {
+
+    /**
+     * @param conflicts the number of conflicts of an individual
+     * @param maxConflicts the highest number of conflicts a grid of the size can have
+     * @return the fitness of an individual with the given number of conflicts (greater than 0)
+     */
+    double getFitness(int conflicts, int maxConflicts);
+}
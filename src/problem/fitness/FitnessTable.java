@@ -0,0 +1,43 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.fitness;
+
+/**
+ * Holds the fitness for every possible number of conflicts of a grid size,
+ * so the fitness of an individual is a single array lookup.
+ * The table is immutable and can be shared by all individuals and threads of a solve.
+ */
+public final class FitnessTable {
+
+    private final double[] fitness;
+
+    /**
+     * Default constructor. Evaluates the function once per number of conflicts.
+     * Within each row, column and block every repeated number is a conflict,
+     * so a grid has at most 3 * sideLength * (sideLength - 1) conflicts.
+     * @param function the fitness function to tabulate
+     * @param sideLength the length of one side of the grid
+     */
+    public FitnessTable(FitnessFunction function, int sideLength) {
+        int maxConflicts = 3 * sideLength * (sideLength - 1);
+        this.fitness = new double[maxConflicts + 1];
+        for (int conflicts = 0; conflicts <= maxConflicts; conflicts++) {
+            this.fitness[conflicts] = function.getFitness(conflicts, maxConflicts);
+        }
+    }
+
+    /**
+     * @param conflicts the number of conflicts of an individual
+     * @return the fitness of an individual with the given number of conflicts
+     */
+    public double getFitness(int conflicts) {
+        return this.fitness[conflicts];
+    }
+}
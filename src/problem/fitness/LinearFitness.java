@@ -0,0 +1,22 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.fitness;
+
+/**
+ * The fitness decreases linearly with the conflicts, from 1 for a solution
+ * to a small positive value for a grid with the highest number of conflicts.
+ */
+public final class LinearFitness implements FitnessFunction {
+
+    @Override
+    public double getFitness(int conflicts, int maxConflicts) {
+        return (maxConflicts - conflicts + 1) / (double) (maxConflicts + 1);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.fitness;
+
+/**
+ * The fitness is the reciprocal of the conflicts plus one, raised to a given power.
+ * The higher the power, the more the fittest individuals are preferred.
+ */
+public final class PowerFitness implements FitnessFunction {
+
+    private final int exponent;
+
+    /**
+     * Default constructor
+     * @param exponent the power the reciprocal gets raised to
+     */
+    public PowerFitness(int exponent) {
+        if (exponent < 1) {
+            throw new IllegalArgumentException("The exponent of a power-fitness has to be at least 1");
+        }
+        this.exponent = exponent;
+    }
+
+    @Override
+    public double getFitness(int conflicts, int maxConflicts) {
+        return Math.pow((1.0 / (conflicts + 1)), this.exponent);
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.habitat;
+
+/**
+ * Decides how the variable fields of a new individual get filled
+ */
+public enum Encoding {
+
+    /**
+     * Fills every variable field with a random valid number
+     */
+    CELLS,
+
+    /**
+     * Fills the variable fields of every row with a permutation of the row's missing numbers
+     */
+    ROWS
+}
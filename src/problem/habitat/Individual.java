@@ -10,57 +10,107 @@
 package problem.habitat;
 
 import problem.Problem;
-import problem.registry.Registry;
+import problem.SolverContext;
+import problem.fitness.FitnessTable;
 import sudoku.SudokuGrid;
 
-import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Represents an individual in the world of sudoku-grids
+ * Represents an individual in the world of sudoku-grids. The gene is a view on
+ * the variable fields of the grid, mapped by the problem's shared index table.
  */
 public final class Individual extends SudokuGrid implements Comparable<Individual> {
 
-    private Problem problem;
-    private int[] gene;
+    private final Problem problem;
+    private final int[] geneIndices;
+    private final FitnessTable fitnessTable;
 
     /**
-     * Default constructor. Takes an unfinished grid
-     * and fills it randomly.
+     * Default constructor. Takes the unfinished grid of the context
+     * and fills it randomly, depending on the encoding of the context.
+     * @param context the context of the solve
      */
-    public Individual() {
-        super((SudokuGrid) Registry.getInstance().get("grid"));
-        this.problem = (Problem) Registry.getInstance().get("problem");
-        this.gene = new int[this.problem.getVariableFields().length];
-        this.fillRandom();
+    public Individual(SolverContext context) {
+        super(context.getGrid());
+        this.problem = context.getProblem();
+        this.geneIndices = this.problem.getVariableFields();
+        this.fitnessTable = context.getFitnessTable();
+        if (context.getEncoding() == Encoding.ROWS) {
+            this.fillRandomRows();
+        } else {
+            this.fillRandom();
+        }
     }
 
     /**
-     * Copy constructor
+     * Copy constructor. The copy shares the grid of the other individual till one of them gets written
      * @param other the individual to copy
      */
     public Individual(Individual other) {
-        super(other);
+        super(other, true);
         this.problem = other.problem;
-        this.gene = Arrays.copyOf(other.getGene(), other.getGene().length);
+        this.geneIndices = other.geneIndices;
+        this.fitnessTable = other.fitnessTable;
     }
 
     /**
      * Fills the grid with random numbers
      */
     private void fillRandom() {
-        for (int i = 0; i < this.gene.length; i++) {
+        for (int i = 0; i < this.geneIndices.length; i++) {
             this.writeChromosomeRandom(i);
         }
     }
 
+    /**
+     * Fills the variable fields of every row with a random permutation of the row's missing numbers,
+     * so there are no conflicts within rows. Afterwards numbers which are not valid for their field
+     * get swapped with another field of the row where possible.
+     * A row has more variable fields than missing numbers only if the problem is contradictory,
+     * which the world rejects before any individual gets created.
+     */
+    private void fillRandomRows() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int row = 0; row < this.getSideLength(); row++) {
+            int[] fields = this.problem.getVariableFieldsForRow(row);
+            int[] numbers = this.problem.getMissingNumbersForRow(row).clone();
+            for (int i = numbers.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int number = numbers[i];
+                numbers[i] = numbers[j];
+                numbers[j] = number;
+            }
+            for (int i = 0; i < fields.length; i++) {
+                if (i < numbers.length) {
+                    this.write(fields[i], numbers[i]);
+                } else {
+                    int[] validNumbers = this.problem.getValidNumbersForIndex(fields[i]);
+                    this.write(fields[i], validNumbers[random.nextInt(validNumbers.length)]);
+                }
+            }
+            for (int field1 : fields) {
+                if (this.problem.numberIsValidForIndex(field1, this.read(field1))) {
+                    continue;
+                }
+                for (int field2 : fields) {
+                    if (this.problem.numberIsValidForIndex(field1, this.read(field2)) &&
+                            this.problem.numberIsValidForIndex(field2, this.read(field1))) {
+                        this.swap(field1, field2);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Overwrites the chromosome at a given index with a given number
      * @param index the index to overwrite at
      * @param number the number to insert
      */
     public void writeChromosome(int index, int number) {
-        this.write(this.problem.getVariableFields()[index], number);
-        this.gene[index] = number;
+        this.write(this.geneIndices[index], number);
     }
 
     /**
@@ -68,9 +118,9 @@ public final class Individual extends SudokuGrid implements Comparable<Individua
      * @param index the index to overwrite at
      */
     public void writeChromosomeRandom(int index) {
-        int gridIndex = this.problem.getVariableFields()[index];
-        Integer[] validNumbers = this.problem.getValidNumbersForIndex(gridIndex);
-        int randomIndex = (int) (Math.random() * validNumbers.length);
+        int gridIndex = this.geneIndices[index];
+        int[] validNumbers = this.problem.getValidNumbersForIndex(gridIndex);
+        int randomIndex = ThreadLocalRandom.current().nextInt(validNumbers.length);
         this.writeChromosome(index, validNumbers[randomIndex]);
     }
 
@@ -79,25 +129,25 @@ public final class Individual extends SudokuGrid implements Comparable<Individua
      * @return the chromosome at a given gene-index
      */
     public int readChromosome(int index) {
-        return this.getGene()[index];
+        return this.read(this.geneIndices[index]);
     }
 
     /**
-     * @return the individual's gene
+     * @return the number of chromosomes in the individual's gene
      */
-    public int[] getGene() {
-        return this.gene;
+    public int getGeneLength() {
+        return this.geneIndices.length;
     }
 
     /**
-     * @return the fitness of the individual
+     * @return the fitness of the individual (looked up by its number of conflicts)
      */
     public double getFitness() {
-        return Math.pow((1.0 / (this.getConflicts() + 1)), 3);
+        return this.fitnessTable.getFitness(this.getConflicts());
     }
 
     @Override
     public int compareTo(Individual o) {
-        return (this.getFitness() < o.getFitness()) ? 1 : -1;
+        return Integer.compare(this.getConflicts(), o.getConflicts());
     }
 }
@@ -9,50 +9,78 @@
 
 package problem.habitat;
 
-import problem.registry.Registry;
+import problem.SolverContext;
 
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.TreeSet;
+import java.util.NoSuchElementException;
 
 /**
- * Represents a population of individuals
+ * Represents a population of individuals. Individuals get added unsorted and
+ * the population is ranked once, as soon as the order is needed.
  */
 public final class Population implements Iterable<Individual> {
 
     private double totalFitness;
     private int totalConflicts;
-    private TreeSet<Individual> representation;
-    private int populationSize;
+    private Individual[] representation;
+    private Individual[] rankBuffer;
+    private int[] rankCounts;
+    private double[] cumulativeFitness;
+    private int size;
+    private boolean ranked;
+    private final int populationSize;
+    private final SolverContext context;
 
     /**
-     * Default constructor. Creates a population with random individuals
+     * Default constructor. Creates an empty population
+     * @param context the context of the solve
      */
-    public Population() {
+    public Population(SolverContext context) {
+        this.context = context;
         this.totalFitness = 0.0;
         this.totalConflicts = 0;
-        this.representation = new TreeSet<>();
-        this.populationSize = (int) Registry.getInstance().get("population-size");
+        this.populationSize = context.getPopulationSize();
+        this.representation = new Individual[this.populationSize];
+        this.rankBuffer = new Individual[this.populationSize];
+        this.rankCounts = new int[0];
+        this.cumulativeFitness = new double[this.populationSize];
+        this.size = 0;
+        this.ranked = true;
     }
 
     /**
-     * Copy constructor
+     * Copy constructor. The copied individuals share their grids with the other population's individuals
      * @param other the population to copy
      */
     public Population(Population other) {
-        this();
+        this(other.context);
         this.totalFitness = other.totalFitness;
         this.totalConflicts = other.totalConflicts;
-        for (Individual individual : other) {
-            this.representation.add(new Individual(individual));
+        for (int i = 0; i < other.size; i++) {
+            this.representation[i] = new Individual(other.representation[i]);
         }
+        System.arraycopy(other.cumulativeFitness, 0, this.cumulativeFitness, 0, other.size);
+        this.size = other.size;
+        this.ranked = other.ranked;
+    }
+
+    /**
+     * Removes all individuals, so the population can be filled again without allocating new arrays
+     */
+    public void clear() {
+        this.totalFitness = 0.0;
+        this.totalConflicts = 0;
+        this.size = 0;
+        this.ranked = true;
     }
 
     /**
      * Fills the population with random individuals
      */
     public void createRandom() {
-        for (int i = 0; i < (int) Registry.getInstance().get("population-size"); i++) {
-            this.add(new Individual());
+        for (int i = 0; i < this.populationSize; i++) {
+            this.add(new Individual(this.context));
         }
     }
 
@@ -61,10 +89,12 @@ public final class Population implements Iterable<Individual> {
      * @param individual the individual to add
      */
     public void add(Individual individual) {
-        if (this.representation.size() < this.populationSize) {
+        if (this.size < this.populationSize) {
             this.totalFitness += individual.getFitness();
             this.totalConflicts += individual.getConflicts();
-            this.representation.add(individual);
+            this.representation[this.size] = individual;
+            this.size += 1;
+            this.ranked = false;
         }
     }
 
@@ -78,6 +108,47 @@ public final class Population implements Iterable<Individual> {
         }
     }
 
+    /**
+     * Sorts the individuals from the fittest to the weakest. As the number of conflicts
+     * is a small bounded number a counting sort ranks the population in linear time.
+     * Afterwards the cumulative fitness of the ranked individuals gets calculated.
+     * The population has to be ranked before it is read by multiple threads.
+     */
+    public void rank() {
+        if (this.ranked) {
+            return;
+        }
+        int maxConflicts = 0;
+        for (int i = 0; i < this.size; i++) {
+            maxConflicts = Math.max(maxConflicts, this.representation[i].getConflicts());
+        }
+        if (this.rankCounts.length < maxConflicts + 2) {
+            this.rankCounts = new int[maxConflicts + 2];
+        }
+        int[] counts = this.rankCounts;
+        Arrays.fill(counts, 0, maxConflicts + 2, 0);
+        for (int i = 0; i < this.size; i++) {
+            counts[this.representation[i].getConflicts() + 1] += 1;
+        }
+        for (int conflicts = 1; conflicts <= maxConflicts + 1; conflicts++) {
+            counts[conflicts] += counts[conflicts - 1];
+        }
+        for (int i = 0; i < this.size; i++) {
+            Individual individual = this.representation[i];
+            this.rankBuffer[counts[individual.getConflicts()]++] = individual;
+        }
+        Individual[] ranked = this.rankBuffer;
+        this.rankBuffer = this.representation;
+        this.representation = ranked;
+
+        double cumulativeFitness = 0.0;
+        for (int i = 0; i < this.size; i++) {
+            cumulativeFitness += this.representation[i].getFitness();
+            this.cumulativeFitness[i] = cumulativeFitness;
+        }
+        this.ranked = true;
+    }
+
     /**
      * @return the cumulated fitness of the population
      */
@@ -89,51 +160,95 @@ public final class Population implements Iterable<Individual> {
      * @return the average number of conflicts of grids in the population
      */
     public double getAvgConflicts() {
-        return this.totalConflicts / (double) this.representation.size();
+        return this.totalConflicts / (double) this.size;
     }
 
     /**
      * @return the average fitness of grids in the population
      */
     public double getAvgFitness() {
-        return this.totalFitness / (double) this.representation.size();
+        return this.totalFitness / (double) this.size;
     }
 
     /**
      * @return true iff the population is completely filled with individuals
      */
     public boolean isFull() {
-        return this.representation.size() == this.populationSize;
+        return this.size == this.populationSize;
+    }
+
+    /**
+     * @return the number of individuals in the population
+     */
+    public int size() {
+        return this.size;
     }
 
     /**
      * @param number number of individuals to return
-     * @return returns the the best individuals
+     * @return returns copies of the the best individuals (sharing their grids with the originals)
      */
     public Individual[] get(int number) {
         if (number > this.populationSize) {
             throw new IllegalArgumentException("Cannot return more individuals than in population.");
         }
-        Individual[] elite = new Individual[number];
-        int index = 0;
-        if (elite.length > 0) {
-            for (Individual individual : this) {
-                elite[index] = new Individual(individual);
-                if (++index == elite.length) break;
-            }
+        this.rank();
+        Individual[] elite = new Individual[Math.min(number, this.size)];
+        for (int i = 0; i < elite.length; i++) {
+            elite[i] = new Individual(this.representation[i]);
         }
         return elite;
     }
 
+    /**
+     * @param rank the rank of the individual, where 0 is the fittest
+     * @return the individual with the given rank (not a copy)
+     */
+    public Individual getByRank(int rank) {
+        if (rank >= this.size) {
+            throw new IndexOutOfBoundsException("Population has no individual with rank " + rank + ".");
+        }
+        this.rank();
+        return this.representation[rank];
+    }
+
+    /**
+     * @param rank the rank of an individual, where 0 is the fittest
+     * @return the summed up fitness of all individuals up to the given rank (incl.)
+     */
+    public double getCumulativeFitness(int rank) {
+        if (rank >= this.size) {
+            throw new IndexOutOfBoundsException("Population has no individual with rank " + rank + ".");
+        }
+        this.rank();
+        return this.cumulativeFitness[rank];
+    }
+
     /**
      * @return the best individual in the population
      */
     public Individual getBest() {
-        return this.representation.first();
+        return this.getByRank(0);
     }
 
     @Override
     public Iterator<Individual> iterator() {
-        return this.representation.iterator();
+        this.rank();
+        return new Iterator<Individual>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < Population.this.size;
+            }
+
+            @Override
+            public Individual next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return Population.this.representation[this.index++];
+            }
+        };
     }
 }
@@ -0,0 +1,245 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measurements of a generation or of a whole epoch. The times of the breeding phases
+ * are summed over all breeding threads, so with parallel breeding they can exceed the wall time.
+ */
+public final class Metrics {
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private int epoch;
+    private int generation;
+    private int generations;
+    private long wallNanos;
+    private long selectionNanos;
+    private long crossoverNanos;
+    private long mutationNanos;
+    private long insertionNanos;
+    private long evaluated;
+    private long allocatedBytes;
+    private int bestConflicts;
+    private double avgConflicts;
+    private int restarts;
+
+    /**
+     * @return the number of bytes allocated by the current thread so far or 0 if the JVM can't tell
+     */
+    public static long getThreadAllocatedBytes() {
+        if (Metrics.threads instanceof com.sun.management.ThreadMXBean) {
+            return Math.max(0, ((com.sun.management.ThreadMXBean) Metrics.threads).getCurrentThreadAllocatedBytes());
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the times, evaluations and allocations of other measurements
+     * @param other the measurements to add
+     */
+    public void add(Metrics other) {
+        this.generations += other.generations;
+        this.wallNanos += other.wallNanos;
+        this.selectionNanos += other.selectionNanos;
+        this.crossoverNanos += other.crossoverNanos;
+        this.mutationNanos += other.mutationNanos;
+        this.insertionNanos += other.insertionNanos;
+        this.evaluated += other.evaluated;
+        this.allocatedBytes += other.allocatedBytes;
+    }
+
+    /**
+     * Resets all measurements
+     */
+    public void reset() {
+        this.generations = 0;
+        this.wallNanos = 0;
+        this.selectionNanos = 0;
+        this.crossoverNanos = 0;
+        this.mutationNanos = 0;
+        this.insertionNanos = 0;
+        this.evaluated = 0;
+        this.allocatedBytes = 0;
+    }
+
+    /**
+     * Sets the state of the world the measurements belong to
+     * @param epoch the current epoch
+     * @param generation the current generation within the epoch
+     * @param bestConflicts the conflicts of the best individual
+     * @param avgConflicts the average conflicts of the population
+     * @param restarts the number of restarts so far
+     */
+    public void setState(int epoch, int generation, int bestConflicts, double avgConflicts, int restarts) {
+        this.epoch = epoch;
+        this.generation = generation;
+        this.bestConflicts = bestConflicts;
+        this.avgConflicts = avgConflicts;
+        this.restarts = restarts;
+    }
+
+    /**
+     * @param generations the number of evolved generations to add
+     */
+    public void addGenerations(int generations) {
+        this.generations += generations;
+    }
+
+    /**
+     * @param nanos the wall time to add
+     */
+    public void addWallNanos(long nanos) {
+        this.wallNanos += nanos;
+    }
+
+    /**
+     * @param nanos the time spent selecting parents to add
+     */
+    public void addSelectionNanos(long nanos) {
+        this.selectionNanos += nanos;
+    }
+
+    /**
+     * @param nanos the time spent crossing parents to add
+     */
+    public void addCrossoverNanos(long nanos) {
+        this.crossoverNanos += nanos;
+    }
+
+    /**
+     * @param nanos the time spent mutating descendants to add
+     */
+    public void addMutationNanos(long nanos) {
+        this.mutationNanos += nanos;
+    }
+
+    /**
+     * @param nanos the time spent adding to and ranking the new population to add
+     */
+    public void addInsertionNanos(long nanos) {
+        this.insertionNanos += nanos;
+    }
+
+    /**
+     * @param evaluated the number of bred and evaluated individuals to add
+     */
+    public void addEvaluated(long evaluated) {
+        this.evaluated += evaluated;
+    }
+
+    /**
+     * @param bytes the number of allocated bytes to add
+     */
+    public void addAllocatedBytes(long bytes) {
+        this.allocatedBytes += bytes;
+    }
+
+    /**
+     * @return the epoch of the world
+     */
+    public int getEpoch() {
+        return this.epoch;
+    }
+
+    /**
+     * @return the generation of the world within its epoch
+     */
+    public int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * @return the number of generations the measurements cover
+     */
+    public int getGenerations() {
+        return this.generations;
+    }
+
+    /**
+     * @return the wall time of the generations
+     */
+    public long getWallNanos() {
+        return this.wallNanos;
+    }
+
+    /**
+     * @return the time spent selecting parents
+     */
+    public long getSelectionNanos() {
+        return this.selectionNanos;
+    }
+
+    /**
+     * @return the time spent crossing parents
+     */
+    public long getCrossoverNanos() {
+        return this.crossoverNanos;
+    }
+
+    /**
+     * @return the time spent mutating descendants
+     */
+    public long getMutationNanos() {
+        return this.mutationNanos;
+    }
+
+    /**
+     * @return the time spent adding the elites and descendants to the new population and ranking it
+     */
+    public long getInsertionNanos() {
+        return this.insertionNanos;
+    }
+
+    /**
+     * @return the number of individuals bred and evaluated
+     */
+    public long getEvaluated() {
+        return this.evaluated;
+    }
+
+    /**
+     * @return the number of evaluated individuals per second of wall time
+     */
+    public double getEvaluationsPerSecond() {
+        return (this.wallNanos == 0) ? 0.0 : this.evaluated * 1e9 / this.wallNanos;
+    }
+
+    /**
+     * @return the number of bytes allocated by the threads evolving the generations
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * @return the conflicts of the best individual
+     */
+    public int getBestConflicts() {
+        return this.bestConflicts;
+    }
+
+    /**
+     * @return the average conflicts of the population
+     */
+    public double getAvgConflicts() {
+        return this.avgConflicts;
+    }
+
+    /**
+     * @return the number of restarts of the world so far
+     */
+    public int getRestarts() {
+        return this.restarts;
+    }
+}
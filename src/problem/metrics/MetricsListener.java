@@ -0,0 +1,27 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.metrics;
+
+/**
+ * Receives the measurements of a world. The passed metrics get reused by the
+ * world and must not be kept. Islands of an archipelago report concurrently.
+ */
+public interface MetricsListener {
+
+    /**
+     * @param metrics the measurements of the generation which has just been evolved
+     */
+    void generationEvolved(Metrics metrics);
+
+    /**
+     * @param metrics the measurements of all generations of the epoch which has just ended
+     */
+    void epochEnded(Metrics metrics);
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.metrics;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes the measurements to a file, one line per generation and epoch.
+ * Files ending with '.csv' get comma-separated values, all others JSON lines.
+ * Every line names the puzzle it belongs to, so the lines of puzzles solved
+ * at the same time can be told apart.
+ */
+public final class MetricsWriter implements Closeable {
+
+    private static final String[] COLUMNS = {
+            "type", "puzzle", "epoch", "generation", "generations", "wall_ns", "selection_ns", "crossover_ns",
+            "mutation_ns", "insertion_ns", "evaluated", "evaluations_per_second", "best_conflicts",
+            "avg_conflicts", "restarts", "allocated_bytes"
+    };
+
+    private final BufferedWriter writer;
+    private final boolean csv;
+
+    /**
+     * Default constructor
+     * @param path the file to write to (gets overwritten)
+     * @throws IOException
+     */
+    public MetricsWriter(Path path) throws IOException {
+        this.writer = Files.newBufferedWriter(path);
+        this.csv = path.toString().endsWith(".csv");
+        if (this.csv) {
+            this.writer.write(String.join(",", MetricsWriter.COLUMNS));
+            this.writer.newLine();
+        }
+    }
+
+    /**
+     * @param puzzle the puzzle the measurements belong to (its line number in a batch-file)
+     * @return a listener which writes the measurements of the solve of the puzzle to this file
+     */
+    public MetricsListener forPuzzle(int puzzle) {
+        return new MetricsListener() {
+            @Override
+            public void generationEvolved(Metrics metrics) {
+                MetricsWriter.this.write("generation", puzzle, metrics);
+            }
+
+            @Override
+            public void epochEnded(Metrics metrics) {
+                MetricsWriter.this.write("epoch", puzzle, metrics);
+            }
+        };
+    }
+
+    /**
+     * Writes a line with the measurements
+     * @param type either 'generation' or 'epoch'
+     * @param puzzle the puzzle the measurements belong to
+     * @param metrics the measurements to write
+     */
+    private synchronized void write(String type, int puzzle, Metrics metrics) {
+        Object[] values = {
+                type, puzzle, metrics.getEpoch(), metrics.getGeneration(), metrics.getGenerations(), metrics.getWallNanos(),
+                metrics.getSelectionNanos(), metrics.getCrossoverNanos(), metrics.getMutationNanos(),
+                metrics.getInsertionNanos(), metrics.getEvaluated(),
+                String.format(Locale.ROOT, "%.1f", metrics.getEvaluationsPerSecond()), metrics.getBestConflicts(),
+                String.format(Locale.ROOT, "%.3f", metrics.getAvgConflicts()), metrics.getRestarts(),
+                metrics.getAllocatedBytes()
+        };
+        StringBuilder line = new StringBuilder(this.csv ? "" : "{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            if (this.csv) {
+                line.append(values[i]);
+            } else {
+                line.append('"').append(MetricsWriter.COLUMNS[i]).append("\":");
+                line.append((i == 0) ? "\"" + values[i] + "\"" : values[i]);
+            }
+        }
+        if (!this.csv) line.append('}');
+        try {
+            this.writer.write(line.toString());
+            this.writer.newLine();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not write metrics", exception);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.writer.close();
+    }
+}
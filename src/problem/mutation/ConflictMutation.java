@@ -0,0 +1,129 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.mutation;
+
+import problem.Problem;
+import problem.SolverContext;
+import problem.habitat.Encoding;
+import problem.habitat.Individual;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mutates an individual only at fields which are in conflict. Whether a field is in conflict
+ * is read from the usage counters of its units, so no extra index has to be kept up to date.
+ * For a conflicting field the best swap with another field of its row is scored, and with the
+ * cell encoding also the best other possible number. The best change is committed if the
+ * swap-policy accepts it. Holds no mutable state, so it can be used by multiple threads at once.
+ */
+public final class ConflictMutation implements Mutation {
+
+    private final Problem problem;
+    private final SwapPolicy policy;
+    private final double mutationRate;
+    private final boolean reassign;
+
+    /**
+     * Default constructor
+     * @param context the context of the solve
+     * @param policy decides which of the scored changes get committed
+     */
+    public ConflictMutation(SolverContext context, SwapPolicy policy) {
+        this.problem = context.getProblem();
+        this.policy = policy;
+        this.mutationRate = context.getMutationRate();
+        this.reassign = context.getEncoding() != Encoding.ROWS;
+    }
+
+    @Override
+    public Individual mutate(Individual individual) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < this.mutationRate) {
+            return individual;
+        }
+        for (int i = 0; i < (int) (random.nextDouble() * individual.getSideLength()); i++) {
+            if (individual.getConflicts() == 0) {
+                break;
+            }
+            int[] variableFields = this.problem.getVariableFieldsForRow(random.nextInt(individual.getSideLength()));
+            int field = this.pickConflicting(individual, variableFields, random);
+            if (field >= 0) {
+                this.mutateField(individual, field, variableFields);
+            }
+        }
+        return individual;
+    }
+
+    /**
+     * Picks one of the conflicting fields uniformly at random (reservoir sampling, so nothing gets allocated)
+     * @param individual the individual to read from
+     * @param variableFields the variable fields of a row
+     * @param random the random number generator of the thread
+     * @return a conflicting field of the row or -1 if there is none
+     */
+    private int pickConflicting(Individual individual, int[] variableFields, ThreadLocalRandom random) {
+        int picked = -1;
+        int seen = 0;
+        for (int field : variableFields) {
+            if (individual.isConflicting(field)) {
+                seen += 1;
+                if (random.nextInt(seen) == 0) {
+                    picked = field;
+                }
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Scores all swaps of a field with the other fields of its row and, with the cell encoding,
+     * all other possible numbers of the field. Commits the best one if the swap-policy accepts it
+     * @param individual the individual to mutate
+     * @param field the conflicting field
+     * @param variableFields the variable fields of the field's row
+     */
+    private void mutateField(Individual individual, int field, int[] variableFields) {
+        int number = individual.read(field);
+        int bestDelta = Integer.MAX_VALUE;
+        int bestSwap = -1;
+        int bestNumber = 0;
+        for (int other : variableFields) {
+            if (individual.read(other) != number &&
+                    this.problem.numberIsValidForIndex(field, individual.read(other)) &&
+                    this.problem.numberIsValidForIndex(other, number)) {
+                int delta = individual.getSwapDelta(field, other);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    bestSwap = other;
+                }
+            }
+        }
+        if (this.reassign) {
+            for (int validNumber : this.problem.getValidNumbersForIndex(field)) {
+                if (validNumber != number) {
+                    int delta = individual.getWriteDelta(field, validNumber);
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestSwap = -1;
+                        bestNumber = validNumber;
+                    }
+                }
+            }
+        }
+        if (bestDelta == Integer.MAX_VALUE || !this.policy.accept(bestDelta)) {
+            return;
+        }
+        if (bestSwap >= 0) {
+            individual.swap(field, bestSwap);
+        } else {
+            individual.write(field, bestNumber);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.mutation;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a scored swap gets committed
+ */
+public enum SwapPolicy {
+
+    /**
+     * Commits every swap
+     */
+    ALWAYS {
+        @Override
+        public boolean accept(int delta) {
+            return true;
+        }
+    },
+
+    /**
+     * Commits only swaps which reduce the number of conflicts
+     */
+    GREEDY {
+        @Override
+        public boolean accept(int delta) {
+            return delta < 0;
+        }
+    },
+
+    /**
+     * Commits swaps which don't add conflicts and swaps which add conflicts
+     * with a probability of e^(-delta)
+     */
+    PROBABILISTIC {
+        @Override
+        public boolean accept(int delta) {
+            return delta <= 0 || ThreadLocalRandom.current().nextDouble() < Math.exp(-delta);
+        }
+    };
+
+    /**
+     * @param delta the change of the number of conflicts the swap would cause
+     * @return true iff the swap should be committed
+     */
+    public abstract boolean accept(int delta);
+}
@@ -10,37 +10,50 @@
 package problem.mutation;
 
 import problem.Problem;
+import problem.SolverContext;
 import problem.habitat.Individual;
-import problem.registry.Registry;
+
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Mutates an individual by swapping to numbers from either rows
+ * Mutates an individual by swapping to numbers from either rows.
+ * Every candidate swap gets scored from the usage counters first
+ * and is only committed if the swap-policy accepts it.
  */
 public final class SwapRowMutation implements Mutation {
 
-    private Problem problem;
+    private final Problem problem;
+    private final SwapPolicy policy;
+    private final double mutationRate;
 
-    public SwapRowMutation() {
-        this.problem = (Problem) Registry.getInstance().get("problem");
+    /**
+     * Default constructor
+     * @param context the context of the solve
+     * @param policy decides which of the scored swaps get committed
+     */
+    public SwapRowMutation(SolverContext context, SwapPolicy policy) {
+        this.problem = context.getProblem();
+        this.policy = policy;
+        this.mutationRate = context.getMutationRate();
     }
 
     @Override
     public Individual mutate(Individual individual) {
-        if (Math.random() < (double) Registry.getInstance().get("mutation-rate")) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < this.mutationRate) {
             return individual;
         }
-        for (int i = 0; i < (int) (Math.random() * individual.getSideLength()); i++) {
-            int row = (int) (Math.random() * individual.getSideLength());
-            Integer[] variableFields = this.problem.getVariableFieldsForRow(row);
+        for (int i = 0; i < (int) (random.nextDouble() * individual.getSideLength()); i++) {
+            int row = random.nextInt(individual.getSideLength());
+            int[] variableFields = this.problem.getVariableFieldsForRow(row);
             if (variableFields.length > 0) {
-                int field1 = variableFields[(int) (Math.random() * variableFields.length)];
+                int field1 = variableFields[random.nextInt(variableFields.length)];
                 for (int field : variableFields) {
                     if (individual.read(field1) != individual.read(field) &&
                             this.problem.numberIsValidForIndex(field1, individual.read(field)) &&
-                            this.problem.numberIsValidForIndex(field, individual.read(field1))) {
-                        int tmp = individual.read(field);
-                        individual.write(field1, individual.read(field));
-                        individual.write(field, tmp);
+                            this.problem.numberIsValidForIndex(field, individual.read(field1)) &&
+                            this.policy.accept(individual.getSwapDelta(field1, field))) {
+                        individual.swap(field1, field);
                     }
                 }
             }
@@ -0,0 +1,64 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.selection;
+
+import problem.habitat.Individual;
+import problem.habitat.Population;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implements a linear rank selection. The probability of an individual decreases
+ * linearly with its rank, independent of the actual fitness values. Draws by inverting
+ * the distribution function, so no table is needed and multiple threads can select at once.
+ */
+public final class LinearRankSelection implements Selection {
+
+    private static final double DEFAULT_PRESSURE = 1.5;
+
+    private final double pressure;
+
+    /**
+     * Default constructor. Uses a selection pressure of 1.5
+     */
+    public LinearRankSelection() {
+        this(LinearRankSelection.DEFAULT_PRESSURE);
+    }
+
+    /**
+     * @param pressure the expected number of selections of the fittest individual per selection
+     *                 of an average individual (between 1.0 and 2.0)
+     */
+    public LinearRankSelection(double pressure) {
+        if (pressure < 1.0 || pressure > 2.0) {
+            throw new IllegalArgumentException("Selection pressure has to be between 1.0 and 2.0");
+        }
+        this.pressure = pressure;
+    }
+
+    @Override
+    public Individual select(Population population) {
+        double ball = ThreadLocalRandom.current().nextDouble();
+        double position = ball;
+        if (this.pressure > 1.0) {
+            position = (this.pressure - Math.sqrt(this.pressure * this.pressure - 4.0 * (this.pressure - 1.0) * ball)) /
+                    (2.0 * (this.pressure - 1.0));
+        }
+        int rank = Math.min((int) (position * population.size()), population.size() - 1);
+        return population.getByRank(rank);
+    }
+
+    @Override
+    public void select(Population population, Individual[] selected) {
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = this.select(population);
+        }
+    }
+}
@@ -12,21 +12,44 @@ package problem.selection;
 import problem.habitat.Individual;
 import problem.habitat.Population;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
- * Implements a standard roulette-wheel selection for a genetic-algorithm
+ * Implements a standard roulette-wheel selection for a genetic-algorithm.
+ * Each draw is a binary search over the cumulative fitness of the ranked population.
  */
 public final class RouletteWheelSelection implements Selection {
 
     @Override
     public Individual select(Population population) {
-        double ball = Math.random();
-        for (Individual individual : population) {
-            double value = individual.getFitness() / population.getTotalFitness();
-            if (ball <= value) {
-                return individual;
+        double totalFitness = population.getCumulativeFitness(population.size() - 1);
+        return RouletteWheelSelection.find(population, ThreadLocalRandom.current().nextDouble() * totalFitness);
+    }
+
+    @Override
+    public void select(Population population, Individual[] selected) {
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = this.select(population);
+        }
+    }
+
+    /**
+     * Finds the individual whose slice of the wheel contains a given position
+     * @param population the population to search in
+     * @param ball the position on the wheel (between 0 and the total fitness)
+     * @return the individual whose cumulative fitness is the first one greater than the ball
+     */
+    private static Individual find(Population population, double ball) {
+        int low = 0;
+        int high = population.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (population.getCumulativeFitness(middle) <= ball) {
+                low = middle + 1;
+            } else {
+                high = middle;
             }
-            ball -= value;
         }
-        throw new RuntimeException("Roulettewheel selection failed to select an individual");
+        return population.getByRank(low);
     }
 }
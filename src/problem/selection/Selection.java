@@ -23,4 +23,23 @@ public interface Selection {
      * @return the selected individual
      */
     Individual select(Population population);
+
+    /**
+     * Selects multiple individuals from a population at once
+     * @param population the population to select from
+     * @param selected the array to fill with the selected individuals
+     */
+    void select(Population population, Individual[] selected);
+
+    /**
+     * Selects multiple individuals from a population at once
+     * @param population the population to select from
+     * @param number the number of individuals to select
+     * @return the selected individuals
+     */
+    default Individual[] select(Population population, int number) {
+        Individual[] selected = new Individual[number];
+        this.select(population, selected);
+        return selected;
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.selection;
+
+import problem.habitat.Individual;
+import problem.habitat.Population;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implements stochastic universal sampling. Like a roulette-wheel selection,
+ * but all individuals are selected in one spin of a wheel with equally spaced pointers.
+ */
+public final class StochasticUniversalSampling implements Selection {
+
+    @Override
+    public Individual select(Population population) {
+        return this.select(population, 1)[0];
+    }
+
+    @Override
+    public void select(Population population, Individual[] selected) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int number = selected.length;
+        double totalFitness = population.getCumulativeFitness(population.size() - 1);
+        double distance = totalFitness / number;
+        double pointer = random.nextDouble() * distance;
+        int rank = 0;
+        for (int i = 0; i < number; i++) {
+            while (rank < population.size() - 1 && population.getCumulativeFitness(rank) <= pointer) {
+                rank += 1;
+            }
+            selected[i] = population.getByRank(rank);
+            pointer += distance;
+        }
+        for (int i = number - 1; i > 0; i--) {
+            int other = random.nextInt(i + 1);
+            Individual tmp = selected[i];
+            selected[i] = selected[other];
+            selected[other] = tmp;
+        }
+    }
+}
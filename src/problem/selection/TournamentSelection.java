@@ -0,0 +1,53 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.selection;
+
+import problem.habitat.Individual;
+import problem.habitat.Population;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implements a tournament selection. Picks a few random individuals
+ * and selects the fittest of them. Holds no mutable state, so it can be
+ * used by multiple threads at once.
+ */
+public final class TournamentSelection implements Selection {
+
+    private final int tournamentSize;
+
+    /**
+     * Default constructor
+     * @param tournamentSize the number of individuals which compete in a tournament
+     */
+    public TournamentSelection(int tournamentSize) {
+        if (tournamentSize < 1) {
+            throw new IllegalArgumentException("A tournament needs at least one individual");
+        }
+        this.tournamentSize = tournamentSize;
+    }
+
+    @Override
+    public Individual select(Population population) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int bestRank = random.nextInt(population.size());
+        for (int i = 1; i < this.tournamentSize; i++) {
+            bestRank = Math.min(bestRank, random.nextInt(population.size()));
+        }
+        return population.getByRank(bestRank);
+    }
+
+    @Override
+    public void select(Population population, Individual[] selected) {
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = this.select(population);
+        }
+    }
+}
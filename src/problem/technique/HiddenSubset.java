@@ -0,0 +1,120 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.technique;
+
+import problem.Candidates;
+import sudoku.GridLayout;
+import sudoku.SudokuGrid;
+
+import java.util.BitSet;
+
+/**
+ * Finds hidden pairs, triples etc.: if n numbers of a unit can only be placed in the same
+ * n fields, all other candidates can be removed from these fields
+ */
+public final class HiddenSubset implements Technique {
+
+    private final int size;
+
+    /**
+     * Default constructor
+     * @param size the number of numbers in a subset (2 for pairs, 3 for triples)
+     */
+    public HiddenSubset(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String getName() {
+        return (this.size == 2) ? "Hidden pairs" : (this.size == 3) ? "Hidden triples" : "Hidden subsets of " + this.size;
+    }
+
+    @Override
+    public int apply(SudokuGrid grid, Candidates candidates) {
+        GridLayout layout = grid.getLayout();
+        int sideLength = grid.getSideLength();
+        int eliminated = 0;
+        for (int unit = 0; unit < 3 * sideLength; unit++) {
+            int[] fields = layout.getUnit(unit);
+            BitSet[] positions = new BitSet[sideLength + 1];
+            int[] subsetNumbers = new int[sideLength];
+            int count = 0;
+            for (int number = 1; number <= sideLength; number++) {
+                positions[number] = new BitSet(fields.length);
+                for (int position = 0; position < fields.length; position++) {
+                    if (grid.read(fields[position]) == 0 && candidates.contains(fields[position], number)) {
+                        positions[number].set(position);
+                    }
+                }
+                int cardinality = positions[number].cardinality();
+                if (cardinality >= 2 && cardinality <= this.size) {
+                    subsetNumbers[count++] = number;
+                }
+            }
+            eliminated += this.findSubsets(candidates, fields, positions, subsetNumbers, count,
+                    new int[this.size], 0, 0, new BitSet(fields.length));
+        }
+        return eliminated;
+    }
+
+    /**
+     * Recursively combines numbers to subsets and eliminates the other candidates of every hidden subset
+     * @param candidates the candidates of the empty fields
+     * @param fields the fields of the unit
+     * @param positions for each number the positions in the unit where it is a candidate
+     * @param subsetNumbers the numbers which could be part of a subset
+     * @param count the number of numbers which could be part of a subset
+     * @param chosen the numbers chosen so far
+     * @param depth the number of numbers chosen so far
+     * @param start the first position in subsetNumbers which may be chosen next
+     * @param union the union of the positions of the chosen numbers
+     * @return the number of removed candidates
+     */
+    private int findSubsets(Candidates candidates, int[] fields, BitSet[] positions, int[] subsetNumbers, int count,
+                            int[] chosen, int depth, int start, BitSet union) {
+        if (depth == this.size) {
+            return (union.cardinality() == this.size) ? this.eliminate(candidates, fields, chosen, union) : 0;
+        }
+        int eliminated = 0;
+        for (int i = start; i < count; i++) {
+            BitSet extended = (BitSet) union.clone();
+            extended.or(positions[subsetNumbers[i]]);
+            if (extended.cardinality() <= this.size) {
+                chosen[depth] = subsetNumbers[i];
+                eliminated += this.findSubsets(candidates, fields, positions, subsetNumbers, count, chosen, depth + 1, i + 1, extended);
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * Removes all candidates except the numbers of a hidden subset from the subset's fields
+     * @param candidates the candidates of the empty fields
+     * @param fields the fields of the unit
+     * @param chosen the numbers of the subset
+     * @param union the positions of the subset's fields in the unit
+     * @return the number of removed candidates
+     */
+    private int eliminate(Candidates candidates, int[] fields, int[] chosen, BitSet union) {
+        int eliminated = 0;
+        for (int position = union.nextSetBit(0); position >= 0; position = union.nextSetBit(position + 1)) {
+            for (int number : candidates.toArray(fields[position])) {
+                boolean inSubset = false;
+                for (int subsetNumber : chosen) {
+                    inSubset |= subsetNumber == number;
+                }
+                if (!inSubset && candidates.remove(fields[position], number)) {
+                    eliminated += 1;
+                }
+            }
+        }
+        return eliminated;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.technique;
+
+import problem.Candidates;
+import sudoku.GridLayout;
+import sudoku.SudokuGrid;
+
+/**
+ * Finds pointing and claiming candidates. If the candidates for a number within a block all lie in
+ * one row or column, the number can be removed from the rest of that row or column (pointing).
+ * If the candidates for a number within a row or column all lie in one block, the number can be
+ * removed from the rest of that block (claiming).
+ */
+public final class LockedCandidates implements Technique {
+
+    @Override
+    public String getName() {
+        return "Pointing/claiming";
+    }
+
+    @Override
+    public int apply(SudokuGrid grid, Candidates candidates) {
+        GridLayout layout = grid.getLayout();
+        int sideLength = grid.getSideLength();
+        int eliminated = 0;
+        for (int number = 1; number <= sideLength; number++) {
+            for (int block = 0; block < sideLength; block++) {
+                int[] fields = layout.getBlock(block);
+                int row = this.getCommonLine(grid, candidates, fields, number, true);
+                if (row >= 0) {
+                    eliminated += this.eliminate(grid, candidates, layout.getRow(row), number, block, true);
+                }
+                int column = this.getCommonLine(grid, candidates, fields, number, false);
+                if (column >= 0) {
+                    eliminated += this.eliminate(grid, candidates, layout.getColumn(column), number, block, true);
+                }
+            }
+            for (int line = 0; line < 2 * sideLength; line++) {
+                int[] fields = layout.getUnit(line);
+                int block = this.getCommonBlock(grid, candidates, fields, number);
+                if (block >= 0) {
+                    eliminated += this.eliminate(grid, candidates, layout.getBlock(block), number, line, false);
+                }
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * @param grid the grid with the already fixed numbers
+     * @param candidates the candidates of the empty fields
+     * @param fields the fields of a block
+     * @param number the number to look at
+     * @param rows true to look for a common row, false to look for a common column
+     * @return the row or column all candidates for the number lie in, -1 if there is none
+     */
+    private int getCommonLine(SudokuGrid grid, Candidates candidates, int[] fields, int number, boolean rows) {
+        int line = -1;
+        for (int index : fields) {
+            if (grid.read(index) == 0 && candidates.contains(index, number)) {
+                int fieldLine = rows ? grid.getRowByIndex(index) : grid.getColumnByIndex(index);
+                if (line >= 0 && line != fieldLine) {
+                    return -1;
+                }
+                line = fieldLine;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * @param grid the grid with the already fixed numbers
+     * @param candidates the candidates of the empty fields
+     * @param fields the fields of a row or column
+     * @param number the number to look at
+     * @return the block all candidates for the number lie in, -1 if there is none
+     */
+    private int getCommonBlock(SudokuGrid grid, Candidates candidates, int[] fields, int number) {
+        int block = -1;
+        for (int index : fields) {
+            if (grid.read(index) == 0 && candidates.contains(index, number)) {
+                int fieldBlock = grid.getBlockByIndex(index);
+                if (block >= 0 && block != fieldBlock) {
+                    return -1;
+                }
+                block = fieldBlock;
+            }
+        }
+        return block;
+    }
+
+    /**
+     * Removes a number from the fields of a unit which lie outside of another unit
+     * @param grid the grid with the already fixed numbers
+     * @param candidates the candidates of the empty fields
+     * @param fields the fields to remove the number from
+     * @param number the number to remove
+     * @param keep the unit whose fields keep the number
+     * @param keepIsBlock true iff the unit to keep is a block, false if it is a row or column (rows first)
+     * @return the number of removed candidates
+     */
+    private int eliminate(SudokuGrid grid, Candidates candidates, int[] fields, int number, int keep, boolean keepIsBlock) {
+        int eliminated = 0;
+        for (int index : fields) {
+            boolean kept;
+            if (keepIsBlock) {
+                kept = grid.getBlockByIndex(index) == keep;
+            } else if (keep < grid.getSideLength()) {
+                kept = grid.getRowByIndex(index) == keep;
+            } else {
+                kept = grid.getColumnByIndex(index) == keep - grid.getSideLength();
+            }
+            if (!kept && grid.read(index) == 0 && candidates.remove(index, number)) {
+                eliminated += 1;
+            }
+        }
+        return eliminated;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.technique;
+
+import problem.Candidates;
+import sudoku.GridLayout;
+import sudoku.SudokuGrid;
+
+/**
+ * Finds naked pairs, triples etc.: if the candidates of n fields of a unit are
+ * made up of only n numbers, these numbers can be removed from all other fields of the unit
+ */
+public final class NakedSubset implements Technique {
+
+    private final int size;
+
+    /**
+     * Default constructor
+     * @param size the number of fields in a subset (2 for pairs, 3 for triples)
+     */
+    public NakedSubset(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String getName() {
+        return (this.size == 2) ? "Naked pairs" : (this.size == 3) ? "Naked triples" : "Naked subsets of " + this.size;
+    }
+
+    @Override
+    public int apply(SudokuGrid grid, Candidates candidates) {
+        GridLayout layout = grid.getLayout();
+        int eliminated = 0;
+        for (int unit = 0; unit < 3 * grid.getSideLength(); unit++) {
+            int[] fields = layout.getUnit(unit);
+            int[] subsetFields = new int[fields.length];
+            int count = 0;
+            for (int index : fields) {
+                int numbers = candidates.count(index);
+                if (grid.read(index) == 0 && numbers >= 2 && numbers <= this.size) {
+                    subsetFields[count++] = index;
+                }
+            }
+            eliminated += this.findSubsets(grid, candidates, fields, subsetFields, count,
+                    new int[this.size], 0, 0, new long[candidates.getWords()]);
+        }
+        return eliminated;
+    }
+
+    /**
+     * Recursively combines fields to subsets and eliminates the numbers of every naked subset
+     * @param grid the grid with the already fixed numbers
+     * @param candidates the candidates of the empty fields
+     * @param fields the fields of the unit
+     * @param subsetFields the fields which could be part of a subset
+     * @param count the number of fields which could be part of a subset
+     * @param chosen the fields chosen so far
+     * @param depth the number of fields chosen so far
+     * @param start the first position in subsetFields which may be chosen next
+     * @param union the union of the candidates of the chosen fields
+     * @return the number of removed candidates
+     */
+    private int findSubsets(SudokuGrid grid, Candidates candidates, int[] fields, int[] subsetFields, int count,
+                            int[] chosen, int depth, int start, long[] union) {
+        if (depth == this.size) {
+            return (NakedSubset.bitCount(union) == this.size) ? this.eliminate(grid, candidates, fields, chosen, union) : 0;
+        }
+        int eliminated = 0;
+        for (int i = start; i < count; i++) {
+            long[] extended = new long[union.length];
+            for (int word = 0; word < union.length; word++) {
+                extended[word] = union[word] | candidates.getMask(subsetFields[i], word);
+            }
+            if (NakedSubset.bitCount(extended) <= this.size) {
+                chosen[depth] = subsetFields[i];
+                eliminated += this.findSubsets(grid, candidates, fields, subsetFields, count, chosen, depth + 1, i + 1, extended);
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * Removes the numbers of a naked subset from all other fields of the unit
+     * @param grid the grid with the already fixed numbers
+     * @param candidates the candidates of the empty fields
+     * @param fields the fields of the unit
+     * @param chosen the fields of the subset
+     * @param union the numbers of the subset
+     * @return the number of removed candidates
+     */
+    private int eliminate(SudokuGrid grid, Candidates candidates, int[] fields, int[] chosen, long[] union) {
+        int eliminated = 0;
+        for (int index : fields) {
+            if (grid.read(index) != 0 || NakedSubset.contains(chosen, index)) {
+                continue;
+            }
+            for (int word = 0; word < union.length; word++) {
+                long mask = candidates.getMask(index, word);
+                eliminated += Long.bitCount(mask & union[word]);
+                candidates.setMask(index, word, mask & ~union[word]);
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * @param mask a bitmask split into longs
+     * @return the number of set bits
+     */
+    private static int bitCount(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param array the array to search in
+     * @param value the value to search for
+     * @return true iff the array contains the value
+     */
+    private static boolean contains(int[] array, int value) {
+        for (int element : array) {
+            if (element == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.technique;
+
+import problem.Candidates;
+import sudoku.SudokuGrid;
+
+/**
+ * Interface for a logical technique which removes candidates that cannot be part of a solution
+ */
+public interface Technique {
+
+    /**
+     * @return the name of the technique
+     */
+    String getName();
+
+    /**
+     * Removes all candidates which the technique can rule out at the moment
+     * @param grid the grid with the already fixed numbers
+     * @param candidates the candidates of the empty fields
+     * @return the number of removed candidates
+     */
+    int apply(SudokuGrid grid, Candidates candidates);
+}
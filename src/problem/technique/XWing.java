@@ -0,0 +1,87 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package problem.technique;
+
+import problem.Candidates;
+import sudoku.GridLayout;
+import sudoku.SudokuGrid;
+
+/**
+ * Finds X-wings. If a number can only be placed in the same two columns within two rows,
+ * it must be placed in these columns within these rows and can be removed from the rest
+ * of both columns. The same holds with rows and columns exchanged.
+ */
+public final class XWing implements Technique {
+
+    @Override
+    public String getName() {
+        return "X-wing";
+    }
+
+    @Override
+    public int apply(SudokuGrid grid, Candidates candidates) {
+        GridLayout layout = grid.getLayout();
+        int sideLength = grid.getSideLength();
+        int eliminated = 0;
+        for (int number = 1; number <= sideLength; number++) {
+            eliminated += this.apply(grid, candidates, layout, number, true);
+            eliminated += this.apply(grid, candidates, layout, number, false);
+        }
+        return eliminated;
+    }
+
+    /**
+     * Finds the X-wings of a number with the base in rows or in columns
+     * @param grid the grid with the already fixed numbers
+     * @param candidates the candidates of the empty fields
+     * @param layout the layout of the grid
+     * @param number the number to look at
+     * @param rows true if the base lines are rows, false if they are columns
+     * @return the number of removed candidates
+     */
+    private int apply(SudokuGrid grid, Candidates candidates, GridLayout layout, int number, boolean rows) {
+        int sideLength = grid.getSideLength();
+        int[] first = new int[sideLength];
+        int[] second = new int[sideLength];
+        for (int line = 0; line < sideLength; line++) {
+            first[line] = -1;
+            second[line] = -1;
+            int count = 0;
+            int[] fields = rows ? layout.getRow(line) : layout.getColumn(line);
+            for (int position = 0; position < sideLength; position++) {
+                if (grid.read(fields[position]) == 0 && candidates.contains(fields[position], number)) {
+                    count += 1;
+                    if (count == 1) first[line] = position;
+                    if (count == 2) second[line] = position;
+                }
+            }
+            if (count != 2) {
+                first[line] = -1;
+            }
+        }
+        int eliminated = 0;
+        for (int line1 = 0; line1 < sideLength; line1++) {
+            if (first[line1] < 0) continue;
+            for (int line2 = line1 + 1; line2 < sideLength; line2++) {
+                if (first[line2] != first[line1] || second[line2] != second[line1]) continue;
+                for (int crossLine : new int[]{first[line1], second[line1]}) {
+                    int[] fields = rows ? layout.getColumn(crossLine) : layout.getRow(crossLine);
+                    for (int position = 0; position < sideLength; position++) {
+                        if (position != line1 && position != line2 && grid.read(fields[position]) == 0 &&
+                                candidates.remove(fields[position], number)) {
+                            eliminated += 1;
+                        }
+                    }
+                }
+            }
+        }
+        return eliminated;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of the genetic-sudoku-solver.
+ *
+ * (c) Marcel Moosbrugger
+ *
+ * This source file is subject to the MIT license that is bundled
+ * with this source code in the file LICENSE.
+ */
+
+package sudoku;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable index tables of a sudoku-grid with a given block size. A layout
+ * is shared by all grids of the same size, so the grids themselves only
+ * have to store their cells and usage counters.
+ */
+public final class GridLayout {
+
+    private static final Map<Integer, GridLayout> layouts = new ConcurrentHashMap<>();
+
+    private final int blockSize;
+    private final int sideLength;
+    private final int cellCount;
+    private final int[] rowUsages;
+    private final int[] columnUsages;
+    private final int[] blockUsages;
+    private final int[][] rows;
+    private final int[][] columns;
+    private final int[][] blocks;
+
+    /**
+     * Returns the shared layout for a given block size
+     * @param blockSize the size of a single block
+     * @return the layout for grids with the given block size
+     */
+    public static GridLayout forBlockSize(int blockSize) {
+        return GridLayout.layouts.computeIfAbsent(blockSize, GridLayout::new);
+    }
+
+    /**
+     * The main constructor
+     * @param blockSize the size of a single block
+     */
+    private GridLayout(int blockSize) {
+        this.blockSize = blockSize;
+        this.sideLength = blockSize * blockSize;
+        this.cellCount = this.sideLength * this.sideLength;
+        this.rowUsages = new int[this.cellCount];
+        this.columnUsages = new int[this.cellCount];
+        this.blockUsages = new int[this.cellCount];
+        this.rows = new int[this.sideLength][this.sideLength];
+        this.columns = new int[this.sideLength][this.sideLength];
+        this.blocks = new int[this.sideLength][this.sideLength];
+
+        for (int unit = 0; unit < this.sideLength; unit++) {
+            for (int position = 0; position < this.sideLength; position++) {
+                this.rows[unit][position] = unit * this.sideLength + position;
+                this.columns[unit][position] = position * this.sideLength + unit;
+                this.blocks[unit][position] = ((unit / blockSize) * this.sideLength * blockSize) +
+                        (position / blockSize) * this.sideLength +
+                        ((unit % blockSize) * blockSize) +
+                        (position % blockSize);
+            }
+        }
+        for (int index = 0; index < this.cellCount; index++) {
+            int row = index / this.sideLength;
+            int column = index % this.sideLength;
+            int block = (row / blockSize) * blockSize + (column / blockSize);
+            this.rowUsages[index] = this.getUsageOffset(row);
+            this.columnUsages[index] = this.getUsageOffset(this.sideLength + column);
+            this.blockUsages[index] = this.getUsageOffset(2 * this.sideLength + block);
+        }
+    }
+
+    /**
+     * Units are numbered rows first, then columns, then blocks. The usage counter of
+     * a number within a unit is stored at the returned offset plus the number.
+     * @param unit the number of the unit
+     * @return the offset of the unit's usage counters within a grid's state
+     */
+    private int getUsageOffset(int unit) {
+        return this.cellCount + unit * this.sideLength - 1;
+    }
+
+    /**
+     * @return the length of a grid's state (cells followed by the usage counters of all units)
+     */
+    public int getStateLength() {
+        return this.cellCount + 3 * this.sideLength * this.sideLength;
+    }
+
+    /**
+     * @return the size of a block
+     */
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * @return the length of one side of the grid
+     */
+    public int getSideLength() {
+        return this.sideLength;
+    }
+
+    /**
+     * @return the number of cells in the grid
+     */
+    public int getCellCount() {
+        return this.cellCount;
+    }
+
+    /**
+     * @param index the grid index
+     * @return the offset of the usage counters of the row containing the index
+     */
+    public int getRowUsages(int index) {
+        return this.rowUsages[index];
+    }
+
+    /**
+     * @param index the grid index
+     * @return the offset of the usage counters of the column containing the index
+     */
+    public int getColumnUsages(int index) {
+        return this.columnUsages[index];
+    }
+
+    /**
+     * @param index the grid index
+     * @return the offset of the usage counters of the block containing the index
+     */
+    public int getBlockUsages(int index) {
+        return this.blockUsages[index];
+    }
+
+    /**
+     * @param unit the number of the unit (rows first, then columns, then blocks)
+     * @return the grid indices of the unit (must not be modified)
+     */
+    public int[] getUnit(int unit) {
+        if (unit < this.sideLength) {
+            return this.rows[unit];
+        }
+        if (unit < 2 * this.sideLength) {
+            return this.columns[unit - this.sideLength];
+        }
+        return this.blocks[unit - 2 * this.sideLength];
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the grid indices of the row (must not be modified)
+     */
+    public int[] getRow(int row) {
+        return this.rows[row];
+    }
+
+    /**
+     * @param column the index of the column
+     * @return the grid indices of the column (must not be modified)
+     */
+    public int[] getColumn(int column) {
+        return this.columns[column];
+    }
+
+    /**
+     * @param block the index of the block
+     * @return the grid indices of the block (must not be modified)
+     */
+    public int[] getBlock(int block) {
+        return this.blocks[block];
+    }
+}
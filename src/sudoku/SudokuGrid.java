@@ -9,36 +9,35 @@
 
 package sudoku;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Represents a sudoku-grid
+ * Represents a sudoku-grid. The cells and the usage counters of all rows, columns
+ * and blocks are stored in one flat array, so a grid can be copied in a single step.
+ * Shared copies use the same array till one of them gets written (copy-on-write).
  */
 public class SudokuGrid implements Grid {
 
+    private final GridLayout layout;
     private final int blockSize;
+    private final int sideLength;
     private int conflicts;
     private int countEmptyFields;
-    private int sideLength;
-    private SudokuUnit[] rows;
-    private SudokuUnit[] columns;
-    private SudokuUnit[] blocks;
+    private int[] state;
+    private boolean shared;
 
     /**
      * The main constructor
      * @param blockSize the size of a single block (the whole grid has a side length of blockSize squared)
      */
     public SudokuGrid(int blockSize) {
+        this.layout = GridLayout.forBlockSize(blockSize);
         this.blockSize = blockSize;
-        this.rows = new SudokuUnit[blockSize * blockSize];
-        this.columns = new SudokuUnit[blockSize * blockSize];
-        this.blocks = new SudokuUnit[blockSize * blockSize];
         this.sideLength = this.blockSize * this.blockSize;
         this.countEmptyFields = this.sideLength * this.sideLength;
-        this.fillBlank(this.rows);
-        this.fillBlank(this.columns);
-        this.fillBlank(this.blocks);
+        this.state = new int[this.layout.getStateLength()];
     }
 
     /**
@@ -46,38 +45,169 @@ public class SudokuGrid implements Grid {
      * @param other the SudokuGrid to copy
      */
     public SudokuGrid(SudokuGrid other) {
+        this(other, false);
+    }
+
+    /**
+     * Copy constructor which can share the state of the other grid. A shared state gets copied
+     * as soon as one of the grids is written, so copies which are only read cost no more than a reference.
+     * Sharing has to be done on the thread which writes the other grid.
+     * @param other the SudokuGrid to copy
+     * @param share true iff the state should be shared instead of copied right away
+     */
+    protected SudokuGrid(SudokuGrid other, boolean share) {
+        this.layout = other.layout;
         this.blockSize = other.getBlockSize();
         this.sideLength = other.getSideLength();
         this.conflicts = other.getConflicts();
         this.countEmptyFields = other.countEmptyFields;
-        this.rows = this.copyUnits(other.rows);
-        this.columns = this.copyUnits(other.columns);
-        this.blocks = this.copyUnits(other.blocks);
+        if (share) {
+            this.state = other.state;
+            this.shared = true;
+            other.shared = true;
+        } else {
+            this.state = new int[other.state.length];
+            System.arraycopy(other.state, 0, this.state, 0, other.state.length);
+        }
+    }
+
+    /**
+     * Overwrites this grid with the fields of another grid of the same size
+     * @param other the grid to copy
+     */
+    public void copyFrom(SudokuGrid other) {
+        if (other.layout != this.layout) {
+            throw new IllegalArgumentException("Cannot copy a grid of a different size");
+        }
+        this.conflicts = other.conflicts;
+        this.countEmptyFields = other.countEmptyFields;
+        this.detach();
+        System.arraycopy(other.state, 0, this.state, 0, this.state.length);
+    }
+
+    /**
+     * Overwrites every row of this grid with the same row of another grid. The cells and usage
+     * counters of the rows get copied in bulk, only the counters of the columns and blocks get recounted.
+     * @param sources for every row the grid of the same size to copy it from
+     */
+    public void copyRows(SudokuGrid[] sources) {
+        this.detach();
+        int cellCount = this.layout.getCellCount();
+        for (int row = 0; row < this.sideLength; row++) {
+            int[] source = sources[row].state;
+            int cells = row * this.sideLength;
+            int usages = cellCount + row * this.sideLength;
+            System.arraycopy(source, cells, this.state, cells, this.sideLength);
+            System.arraycopy(source, usages, this.state, usages, this.sideLength);
+        }
+        this.recount(this.sideLength, 3 * this.sideLength);
+    }
+
+    /**
+     * Overwrites every block of this grid with the same block of another grid. The cells (one run
+     * per line of the block) and usage counters of the blocks get copied in bulk, only the counters
+     * of the rows and columns get recounted.
+     * @param sources for every block the grid of the same size to copy it from
+     */
+    public void copyBlocks(SudokuGrid[] sources) {
+        this.detach();
+        int cellCount = this.layout.getCellCount();
+        for (int block = 0; block < this.sideLength; block++) {
+            int[] source = sources[block].state;
+            int[] cells = this.layout.getBlock(block);
+            for (int line = 0; line < this.sideLength; line += this.blockSize) {
+                System.arraycopy(source, cells[line], this.state, cells[line], this.blockSize);
+            }
+            int usages = cellCount + (2 * this.sideLength + block) * this.sideLength;
+            System.arraycopy(source, usages, this.state, usages, this.sideLength);
+        }
+        this.recount(0, 2 * this.sideLength);
+    }
+
+    /**
+     * Recounts the usage counters of a range of units from the cells. Afterwards the number
+     * of conflicts and empty fields gets recalculated from all cells and counters.
+     * @param fromUnit the first unit to recount (incl.)
+     * @param toUnit the last unit to recount (excl.)
+     */
+    private void recount(int fromUnit, int toUnit) {
+        int cellCount = this.layout.getCellCount();
+        int from = cellCount + fromUnit * this.sideLength;
+        int to = cellCount + toUnit * this.sideLength;
+        Arrays.fill(this.state, from, to, 0);
+        this.countEmptyFields = 0;
+        for (int index = 0; index < cellCount; index++) {
+            int number = this.state[index];
+            if (number == 0) {
+                this.countEmptyFields += 1;
+                continue;
+            }
+            int row = this.layout.getRowUsages(index) + number;
+            int column = this.layout.getColumnUsages(index) + number;
+            int block = this.layout.getBlockUsages(index) + number;
+            if (row >= from && row < to) this.state[row] += 1;
+            if (column >= from && column < to) this.state[column] += 1;
+            if (block >= from && block < to) this.state[block] += 1;
+        }
+        this.conflicts = 0;
+        for (int i = cellCount; i < this.state.length; i++) {
+            if (this.state[i] > 1) {
+                this.conflicts += this.state[i] - 1;
+            }
+        }
+    }
+
+    /**
+     * Gives the grid a new state of its own if it shares its state, before the whole state gets overwritten
+     */
+    private void detach() {
+        if (this.shared) {
+            this.state = new int[this.state.length];
+            this.shared = false;
+        }
     }
 
     /**
-     * Makes a deep copy of a SudokuUnit-array
-     * @param other the unit-array to copy
-     * @return a copy of the passed SudokuUnit-array
+     * Gives the grid its own copy of a state it shares with other grids, so it can be written
      */
-    private SudokuUnit[] copyUnits(SudokuUnit[] other) {
-        SudokuUnit[] copy = new SudokuUnit[other.length];
-        for (int i = 0; i < other.length; i++) {
-            copy[i] = new SudokuUnit(other[i]);
+    private void unshare() {
+        int[] state = new int[this.state.length];
+        System.arraycopy(this.state, 0, state, 0, state.length);
+        this.state = state;
+        this.shared = false;
+    }
+
+    /**
+     * Removes one usage of a number from a unit
+     * @param usages the offset of the unit's usage counters
+     * @param number the number to remove
+     */
+    private void removeUsage(int usages, int number) {
+        if (this.state[usages + number] > 1) {
+            this.conflicts -= 1;
         }
-        return copy;
+        this.state[usages + number] -= 1;
     }
 
     /**
-     * Fills a unit array with blank sudoku-units
-     * @param arr the array to fill
+     * Adds one usage of a number to a unit
+     * @param usages the offset of the unit's usage counters
+     * @param number the number to add
      */
-    private void fillBlank(Unit[] arr) {
-        for (int i = 0; i < arr.length; i++) {
-            arr[i] = new SudokuUnit(1, this.getSideLength(), 1);
+    private void addUsage(int usages, int number) {
+        this.state[usages + number] += 1;
+        if (this.state[usages + number] > 1) {
+            this.conflicts += 1;
         }
     }
 
+    /**
+     * @return the layout shared by all grids of this size
+     */
+    public GridLayout getLayout() {
+        return this.layout;
+    }
+
     @Override
     public int getValidMin() {
         return 1;
@@ -90,36 +220,137 @@ public class SudokuGrid implements Grid {
 
     @Override
     public void write(int x, int y, int number) {
-        int blockNum = ((y / this.blockSize) * this.blockSize) + ((x / this.blockSize));
-        int blockIndex = ((y % this.blockSize) * this.blockSize) + (x % this.blockSize);
+        this.write(y * this.sideLength + x, number);
+    }
+
+    @Override
+    public int read(int index) {
+        return this.state[index];
+    }
+
+    @Override
+    public void write(int index, int number) {
+        if (this.shared) {
+            this.unshare();
+        }
+        int oldNumber = this.state[index];
 
-        if (this.rows[y].read(x) == 0) countEmptyFields -= 1;
+        if (oldNumber == 0) countEmptyFields -= 1;
         if (number == 0) countEmptyFields += 1;
 
-        this.conflicts -= this.rows[y].getConflicts();
-        this.conflicts -= this.columns[x].getConflicts();
-        this.conflicts -= this.blocks[blockNum].getConflicts();
+        if (oldNumber > 0) {
+            this.removeUsage(this.layout.getRowUsages(index), oldNumber);
+            this.removeUsage(this.layout.getColumnUsages(index), oldNumber);
+            this.removeUsage(this.layout.getBlockUsages(index), oldNumber);
+        }
+        this.state[index] = number;
+        if (number > 0) {
+            this.addUsage(this.layout.getRowUsages(index), number);
+            this.addUsage(this.layout.getColumnUsages(index), number);
+            this.addUsage(this.layout.getBlockUsages(index), number);
+        }
+    }
 
-        this.rows[y].write(x, number);
-        this.rows[y].setGridIndex(x, this.getIndexByRow(y, x)); //TODO: do not implement here
-        this.columns[x].write(y, number);
-        this.columns[x].setGridIndex(y, this.getIndexByColumn(x, y)); //TODO: do not implement here
-        this.blocks[blockNum].write(blockIndex, number);
-        this.blocks[blockNum].setGridIndex(blockIndex, this.getIndexByBlock(blockNum, blockIndex)); //TODO: do not implement here
+    /**
+     * @param unit the number of the unit (rows first, then columns, then blocks)
+     * @return true iff a number is used more than once within the unit
+     */
+    public boolean hasConflicts(int unit) {
+        int usages = this.layout.getCellCount() + unit * this.sideLength;
+        for (int i = usages; i < usages + this.sideLength; i++) {
+            if (this.state[i] > 1) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        this.conflicts += this.rows[y].getConflicts();
-        this.conflicts += this.columns[x].getConflicts();
-        this.conflicts += this.blocks[blockNum].getConflicts();
+    /**
+     * @param index the index of the field
+     * @return true iff the number of the field is used more than once within its row, column or block
+     */
+    public boolean isConflicting(int index) {
+        int number = this.state[index];
+        return number > 0 && (this.state[this.layout.getRowUsages(index) + number] > 1 ||
+                this.state[this.layout.getColumnUsages(index) + number] > 1 ||
+                this.state[this.layout.getBlockUsages(index) + number] > 1);
     }
 
-    @Override
-    public int read(int index) {
-        return this.rows[index / (this.getSideLength())].read(index % this.getSideLength());
+    /**
+     * Calculates how the number of conflicts would change if a field got overwritten with another number.
+     * Only reads the usage counters of the field's units, nothing gets written.
+     * @param index the index of the field
+     * @param number the number which would be written
+     * @return the change of the number of conflicts the write would cause
+     */
+    public int getWriteDelta(int index, int number) {
+        int oldNumber = this.state[index];
+        if (oldNumber == number) {
+            return 0;
+        }
+        return this.getReplaceDelta(this.layout.getRowUsages(index), oldNumber, number) +
+                this.getReplaceDelta(this.layout.getColumnUsages(index), oldNumber, number) +
+                this.getReplaceDelta(this.layout.getBlockUsages(index), oldNumber, number);
     }
 
-    @Override
-    public void write(int index, int number) {
-        this.write(index % this.getSideLength(), index / this.getSideLength(), number);
+    /**
+     * Calculates how the number of conflicts would change if the numbers of two fields got swapped.
+     * Only reads the usage counters of the affected units, nothing gets written.
+     * @param index1 the index of the first field
+     * @param index2 the index of the second field
+     * @return the change of the number of conflicts a swap would cause
+     */
+    public int getSwapDelta(int index1, int index2) {
+        int number1 = this.state[index1];
+        int number2 = this.state[index2];
+        if (number1 == number2) {
+            return 0;
+        }
+        return this.getSwapDelta(this.layout.getRowUsages(index1), this.layout.getRowUsages(index2), number1, number2) +
+                this.getSwapDelta(this.layout.getColumnUsages(index1), this.layout.getColumnUsages(index2), number1, number2) +
+                this.getSwapDelta(this.layout.getBlockUsages(index1), this.layout.getBlockUsages(index2), number1, number2);
+    }
+
+    /**
+     * @param usages1 the offset of the usage counters of the first field's unit
+     * @param usages2 the offset of the usage counters of the second field's unit
+     * @param number1 the number of the first field
+     * @param number2 the number of the second field
+     * @return the change of conflicts within the two units if the numbers got swapped
+     */
+    private int getSwapDelta(int usages1, int usages2, int number1, int number2) {
+        if (usages1 == usages2) {
+            return 0;
+        }
+        return this.getReplaceDelta(usages1, number1, number2) + this.getReplaceDelta(usages2, number2, number1);
+    }
+
+    /**
+     * @param usages the offset of the unit's usage counters
+     * @param oldNumber the number which gets removed from the unit
+     * @param newNumber the number which gets added to the unit
+     * @return the change of conflicts within the unit if one number got replaced by another
+     */
+    private int getReplaceDelta(int usages, int oldNumber, int newNumber) {
+        int delta = 0;
+        if (oldNumber > 0 && this.state[usages + oldNumber] > 1) {
+            delta -= 1;
+        }
+        if (newNumber > 0 && this.state[usages + newNumber] > 0) {
+            delta += 1;
+        }
+        return delta;
+    }
+
+    /**
+     * Swaps the numbers of two fields
+     * @param index1 the index of the first field
+     * @param index2 the index of the second field
+     */
+    public void swap(int index1, int index2) {
+        int number1 = this.state[index1];
+        this.write(index1, this.state[index2]);
+        this.write(index2, number1);
     }
 
     @Override
@@ -139,29 +370,43 @@ public class SudokuGrid implements Grid {
 
     @Override
     public String toString() {
-        String line = new String(
-                new char[this.rows[0].print(this.blockSize).length()]
-        ).replace('\0', '-') + '\n';
-        String value = "";
-        for(int i = 0; i < this.rows.length; i++) {
-            if (i % this.blockSize == 0) {
-                value += line;
+        int width = String.valueOf(this.getValidMax()).length();
+        StringBuilder value = new StringBuilder();
+        String line = null;
+        for (int row = 0; row < this.sideLength; row++) {
+            StringBuilder printedRow = new StringBuilder();
+            for (int column = 0; column < this.sideLength; column++) {
+                if (column % this.blockSize == 0) {
+                    printedRow.append("| ");
+                }
+                printedRow.append(String.format("%" + width + "d", this.read(this.getIndexByRow(row, column)))).append(' ');
+            }
+            printedRow.append('|');
+            if (line == null) {
+                line = new String(new char[printedRow.length()]).replace('\0', '-') + '\n';
             }
-            value += this.rows[i].print(this.blockSize) + '\n';
+            if (row % this.blockSize == 0) {
+                value.append(line);
+            }
+            value.append(printedRow).append('\n');
         }
-        value += line;
-        return value.trim();
+        value.append(line);
+        return value.toString().trim();
+    }
+
+    /**
+     * @return the number of empty fields
+     */
+    public int getNumberEmptyFields() {
+        return this.countEmptyFields;
     }
 
     @Override
     public Set<Integer> getEmptyFields() {
         Set<Integer> emptyFields = new HashSet<>();
-        for (int rowIndex = 0; rowIndex < this.rows.length; rowIndex++) {
-            int[] row = this.rows[rowIndex].toArray();
-            for (int colIndex = 0; colIndex < row.length; colIndex++) {
-                if (row[colIndex] == 0) {
-                    emptyFields.add((rowIndex * this.getSideLength()) + colIndex);
-                }
+        for (int index = 0; index < this.layout.getCellCount(); index++) {
+            if (this.state[index] == 0) {
+                emptyFields.add(index);
             }
         }
         return emptyFields;
@@ -203,16 +448,16 @@ public class SudokuGrid implements Grid {
 
     @Override
     public int[] getRowForIndex(int index) {
-        return this.rows[this.getRowByIndex(index)].getGridIndices();
+        return this.layout.getRow(this.getRowByIndex(index));
     }
 
     @Override
     public int[] getColumnForIndex(int index) {
-        return this.columns[this.getColumnByIndex(index)].getGridIndices();
+        return this.layout.getColumn(this.getColumnByIndex(index));
     }
 
     @Override
     public int[] getBlockForIndex(int index) {
-        return this.blocks[this.getBlockByIndex(index)].getGridIndices();
+        return this.layout.getBlock(this.getBlockByIndex(index));
     }
 }